@@ -6,6 +6,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import ru.practicum.shareit.exception.ValidationException;
 
 import java.util.Map;
@@ -20,6 +21,13 @@ public class ErrorHandler {
         return Map.of("error", String.format("Неверный параметр %s", e.getMessage()));
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequestException(final WebExchangeBindException e) {
+        log.error("Неверный параметр, {}", e.getMessage());
+        return Map.of("error", String.format("Неверный параметр %s", e.getMessage()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleBadRequestException(final ValidationException e) {
@@ -1,43 +1,53 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerClientFactory;
 
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final String ITEMS_PATH = "/items";
+    private static final Pattern ITEM_PATH = Pattern.compile(ITEMS_PATH + "/\\d+");
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerClientFactory clientFactory) {
+        super(clientFactory.restTemplate(API_PREFIX), clientFactory.webClient(API_PREFIX),
+                clientFactory.responseCache());
     }
 
     public Object addBooking(long userId, BookingDto bookingDto) {
-        return post("", userId, bookingDto);
+        return evictCachedAfter(post("", userId, bookingDto),
+                cache -> cache.invalidate(ITEMS_PATH + "/" + bookingDto.getItemId()));
     }
 
     public Object setApprovedByOwner(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters);
+        return evictCachedAfter(patch("/" + bookingId + "?approved={approved}", userId, parameters),
+                cache -> evictOwnerItems(cache, userId));
+    }
+
+    public Object setApprovedByOwner(long userId, BookingBatchDto batchDto) {
+        return evictCachedAfter(patch("/batch", userId, batchDto), cache -> evictOwnerItems(cache, userId));
+    }
+
+    // Bookings are shown on item pages to the owner only, so a decision changes only the owner's cached pages.
+    private static void evictOwnerItems(ResponseCache cache, long ownerId) {
+        cache.invalidate(ownerId, path -> ITEM_PATH.matcher(path).matches());
     }
 
-    public Object getBookingById(long userId, long bookingId) {
-        return get("/" + bookingId, userId);
+    public Object getBookingById(long userId, long bookingId, String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
     }
 
     public Object getAllBookingsByUserId(long userId, String state, int from, int size) {
@@ -57,4 +67,28 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public Object getAllBookingsByUserId(long userId, String state, LocalDateTime cursorStart, long cursorId,
+                                         int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursorStart", cursorStart,
+                "cursorId", cursorId,
+                "size", size
+        );
+        return get("?state={state}&from=0&size={size}&cursorStart={cursorStart}&cursorId={cursorId}", userId,
+                parameters);
+    }
+
+    public Object getAllBookingsByOwnerId(long userId, String state, LocalDateTime cursorStart, long cursorId,
+                                          int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursorStart", cursorStart,
+                "cursorId", cursorId,
+                "size", size
+        );
+        return get("/owner?state={state}&from=0&size={size}&cursorStart={cursorStart}&cursorId={cursorId}", userId,
+                parameters);
+    }
 }
@@ -2,8 +2,11 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exception.ValidationException;
 
@@ -17,6 +20,8 @@ import java.util.List;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -44,19 +49,45 @@ public class BookingController {
         return bookingClient.setApprovedByOwner(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public Object setApprovedByOwner(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
+                                     @RequestBody BookingBatchDto batchDto) {
+        if (batchDto.getApproved() == null) {
+            log.error("Не передано решение по бронированиям.");
+            throw new ValidationException("approved = null.");
+        }
+        List<Long> bookingIds = batchDto.getBookingIds();
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > MAX_BATCH_SIZE
+                || bookingIds.contains(null)) {
+            log.error("Неверный список бронирований {}.", bookingIds);
+            throw new ValidationException(String.format("bookingIds должен содержать от 1 до %d идентификаторов.",
+                    MAX_BATCH_SIZE));
+        }
+        return bookingClient.setApprovedByOwner(userId, batchDto);
+    }
+
     @GetMapping("/{bookingId}")
     public Object getBookingById(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
-                                 @PathVariable long bookingId) {
-        return bookingClient.getBookingById(userId, bookingId);
+                                 @PathVariable long bookingId,
+                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                 String ifNoneMatch) {
+        return bookingClient.getBookingById(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping
     public Object getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
                                          @RequestParam(defaultValue = "ALL") String state,
                                          @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                         LocalDateTime cursorStart,
+                                         @RequestParam(required = false) Long cursorId) {
         checkPageBorders(from, size);
         String status = checkValidStatus(state);
+        if (checkCursor(cursorStart, cursorId)) {
+            return bookingClient.getAllBookingsByUserId(userId, status, cursorStart, cursorId, size);
+        }
         return bookingClient.getAllBookingsByUserId(userId, status, from, size);
     }
 
@@ -64,9 +95,16 @@ public class BookingController {
     public Object getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
                                           @RequestParam(defaultValue = "ALL") String state,
                                           @RequestParam(defaultValue = "0") int from,
-                                          @RequestParam(defaultValue = "10") int size) {
+                                          @RequestParam(defaultValue = "10") int size,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                          LocalDateTime cursorStart,
+                                          @RequestParam(required = false) Long cursorId) {
         checkPageBorders(from, size);
         String status = checkValidStatus(state);
+        if (checkCursor(cursorStart, cursorId)) {
+            return bookingClient.getAllBookingsByOwnerId(userId, status, cursorStart, cursorId, size);
+        }
         return bookingClient.getAllBookingsByOwnerId(userId, status, from, size);
     }
 
@@ -87,4 +125,15 @@ public class BookingController {
             throw new ValidationException(String.format("неверное значение size %d.", size));
         }
     }
+
+    private boolean checkCursor(LocalDateTime cursorStart, Long cursorId) {
+        if (cursorStart == null && cursorId == null) {
+            return false;
+        }
+        if (cursorStart == null || cursorId == null) {
+            log.error("Курсор бронирований задан не полностью: cursorStart {}, cursorId {}.", cursorStart, cursorId);
+            throw new ValidationException("cursorStart и cursorId задаются только вместе.");
+        }
+        return true;
+    }
 }
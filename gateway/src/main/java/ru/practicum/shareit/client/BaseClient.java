@@ -1,110 +1,252 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+            "content-length", "te", "trailer", "upgrade", "proxy-authenticate", "proxy-authorization");
+
     protected final RestTemplate rest;
+    private final RestTemplate streamingRest;
+    @Nullable
+    protected final WebClient webClient;
+    @Nullable
+    private final ResponseCache cache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
+        this(rest, webClient, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable ResponseCache cache) {
+        this(rest, rest, webClient, cache);
+    }
+
+    public BaseClient(RestTemplate rest, RestTemplate streamingRest, @Nullable WebClient webClient,
+                      @Nullable ResponseCache cache) {
         this.rest = rest;
+        this.streamingRest = streamingRest;
+        this.webClient = webClient;
+        this.cache = cache;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Object get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Map<String, Object> parameters) {
+    protected Object get(String path, @Nullable Map<String, Object> parameters) {
         return get(path, null, parameters);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Object get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Object get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Object conditionalGet(String path, Long userId, @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatchHeader(ifNoneMatch));
+    }
+
+    protected Object cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return cachedGet(path, userId, parameters, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Object cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters,
+                               @Nullable String ifNoneMatch) {
+        if (cache == null || !cache.isEnabled()) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, ifNoneMatchHeader(ifNoneMatch));
+        }
+        URI uri = parameters != null ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        ResponseCache.Key key = cache.key(uri, userId);
+        ResponseEntity<Object> cached = cache.get(key);
+        if (cached != null) {
+            ResponseEntity<Object> response = matchesEtag(ifNoneMatch, cached.getHeaders().getETag())
+                    ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.getHeaders().getETag()).build()
+                    : cached;
+            return webClient != null ? Mono.just(response) : response;
+        }
+        long stamp = cache.stamp();
+        Object response = makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null,
+                ifNoneMatchHeader(ifNoneMatch));
+        if (response instanceof Mono) {
+            return ((Mono<ResponseEntity<Object>>) response).doOnNext(entity -> cache.put(key, entity, stamp));
+        }
+        cache.put(key, (ResponseEntity<Object>) response, stamp);
+        return response;
+    }
+
+    protected Object evictCachedAfter(Object response, Consumer<ResponseCache> invalidation) {
+        if (cache == null || !cache.isEnabled()) {
+            return response;
+        }
+        if (response instanceof Mono) {
+            return ((Mono<?>) response).doOnNext(entity -> invalidation.accept(cache));
+        }
+        invalidation.accept(cache);
+        return response;
+    }
+
+    protected <T> Object post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Object post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Object post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected Object post(String path, long userId, Resource body, MediaType contentType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        if (webClient != null) {
+            return sendAsync(HttpMethod.POST, path, userId, null, body, headers);
+        }
+        return exchange(streamingRest, HttpMethod.POST, path, null,
+                new HttpEntity<>(body, defaultHeaders(userId, headers)));
+    }
+
+    protected <T> Object put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Object patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Object patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected ResponseEntity<Object> patch(String path, long userId, @Nullable Map<String, Object> parameters) {
+    protected Object patch(String path, long userId, @Nullable Map<String, Object> parameters) {
         return patch(path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters,
-                                               T body) {
+    protected <T> Object patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Object delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Object delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> Object makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, parameters, body, null);
+    }
+
+    private <T> Object makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                          @Nullable Map<String, Object> parameters, @Nullable T body,
+                                          @Nullable HttpHeaders extraHeaders) {
+        if (webClient != null) {
+            return sendAsync(method, path, userId, parameters, body, extraHeaders);
+        }
+        return exchange(rest, method, path, parameters, new HttpEntity<>(body, defaultHeaders(userId, extraHeaders)));
+    }
+
+    private static <T> Object exchange(RestTemplate rest, HttpMethod method, String path,
+                                       @Nullable Map<String, Object> parameters, HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCodeValue(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private <T> Mono<ResponseEntity<Object>> sendAsync(HttpMethod method, String path, Long userId,
+                                                       @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                       @Nullable HttpHeaders extraHeaders) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId, extraHeaders)));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(response -> prepareGatewayResponse(response.getStatusCodeValue(), response.getHeaders(),
+                        response.getBody()));
+    }
+
+    private HttpHeaders defaultHeaders(Long userId, @Nullable HttpHeaders extraHeaders) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (extraHeaders != null) {
+            headers.putAll(extraHeaders);
+        }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    @Nullable
+    private static HttpHeaders ifNoneMatchHeader(@Nullable String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ifNoneMatch);
+        return headers;
+    }
+
+    private static boolean matchesEtag(@Nullable String ifNoneMatch, @Nullable String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String strongEtag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(strongEtag));
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(int status, @Nullable HttpHeaders serverHeaders,
+                                                                 @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
         }
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
+        if (body != null && body.length > 0) {
+            return responseBuilder.<Object>body(body);
         }
         return responseBuilder.build();
     }
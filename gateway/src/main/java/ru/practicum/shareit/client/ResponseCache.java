@@ -0,0 +1,204 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@Slf4j
+public class ResponseCache {
+    private static final String CACHE_NAME = "gateway.responses";
+
+    private final boolean enabled;
+    private final String basePath;
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    // Bumped by every invalidation. A response read before the last invalidation may be stale and is not cached.
+    private final AtomicLong generation = new AtomicLong();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Cached keys by path and by user, so that a write evicts only the entries it affects.
+    private final ConcurrentMap<String, Set<Key>> keysByPath = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Key>> keysByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResponseCache(@Value("${shareit-server.url}") String serverUrl, ResponseCacheProperties properties,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = properties.isEnabled();
+        String path = URI.create(serverUrl).getRawPath();
+        this.basePath = path == null ? "" : path;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .evictionListener((Key key, ResponseEntity<Object> response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Key key(URI uri, @Nullable Long userId) {
+        String path = uri.getRawPath().substring(Math.min(basePath.length(), uri.getRawPath().length()));
+        return new Key(path, uri.getRawQuery(), userId);
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public long stamp() {
+        return generation.get();
+    }
+
+    public void put(Key key, ResponseEntity<Object> response, long stamp) {
+        if (response.getStatusCode() != HttpStatus.OK) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (generation.get() == stamp) {
+                cache.put(key, response);
+                index(key);
+            } else {
+                log.debug("Ответ {} прочитан до изменения данных и не кэшируется.", key);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void invalidate(String... paths) {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            for (String path : paths) {
+                Set<Key> keys = keysByPath.remove(path);
+                if (keys != null) {
+                    keys.forEach(this::evict);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Scans the distinct cached paths, not every cached response.
+    public void invalidatePrefix(String prefix) {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            keysByPath.keySet().removeIf(path -> {
+                if (!path.startsWith(prefix)) {
+                    return false;
+                }
+                keysByPath.get(path).forEach(this::evict);
+                return true;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate(long userId, Predicate<String> path) {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            Set<Key> keys = keysByUser.get(userId);
+            if (keys != null) {
+                keys.stream()
+                        .filter(key -> path.test(key.getPath()))
+                        .collect(Collectors.toList())
+                        .forEach(key -> {
+                            evict(key);
+                            unindex(key);
+                        });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void evict(Key key) {
+        cache.invalidate(key);
+        if (key.getUserId() != null) {
+            remove(keysByUser, key.getUserId(), key);
+        }
+        log.debug("Из кэша шлюза удалён устаревший ответ {}.", key);
+    }
+
+    private void index(Key key) {
+        add(keysByPath, key.getPath(), key);
+        if (key.getUserId() != null) {
+            add(keysByUser, key.getUserId(), key);
+        }
+    }
+
+    private void unindex(@Nullable Key key) {
+        if (key == null) {
+            return;
+        }
+        remove(keysByPath, key.getPath(), key);
+        if (key.getUserId() != null) {
+            remove(keysByUser, key.getUserId(), key);
+        }
+    }
+
+    private static <T> void add(ConcurrentMap<T, Set<Key>> index, T value, Key key) {
+        index.compute(value, (ignored, keys) -> {
+            Set<Key> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            result.add(key);
+            return result;
+        });
+    }
+
+    private static <T> void remove(ConcurrentMap<T, Set<Key>> index, T value, Key key) {
+        index.computeIfPresent(value, (ignored, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class Key {
+        private final String path;
+        @Nullable
+        private final String query;
+        @Nullable
+        private final Long userId;
+
+        Key(String path, @Nullable String query, @Nullable Long userId) {
+            this.path = path;
+            this.query = query;
+            this.userId = userId;
+        }
+    }
+}
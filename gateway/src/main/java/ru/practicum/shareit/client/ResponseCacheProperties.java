@@ -0,0 +1,16 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties("shareit-server.cache")
+public class ResponseCacheProperties {
+    private boolean enabled;
+    private Duration ttl = Duration.ofSeconds(10);
+    private long maxSize = 10_000;
+}
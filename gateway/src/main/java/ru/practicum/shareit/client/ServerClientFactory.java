@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+@Component
+public class ServerClientFactory {
+    private final String serverUrl;
+    private final RestTemplateBuilder builder;
+    private final ClientHttpRequestFactory requestFactory;
+    private final HttpComponentsClientHttpRequestFactory streamingRequestFactory;
+    @Nullable
+    private final WebClient webClient;
+    private final ResponseCache responseCache;
+
+    @Autowired
+    public ServerClientFactory(@Value("${shareit-server.url}") String serverUrl,
+                               ObjectProvider<RestTemplateBuilder> builder,
+                               ClientHttpRequestFactory shareitServerRequestFactory,
+                               CloseableHttpClient shareitServerHttpClient,
+                               ObjectProvider<WebClient> shareitServerWebClient, ResponseCache responseCache) {
+        this.serverUrl = serverUrl;
+        this.builder = builder.getIfAvailable(RestTemplateBuilder::new);
+        this.requestFactory = shareitServerRequestFactory;
+        this.streamingRequestFactory = new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+        this.streamingRequestFactory.setBufferRequestBody(false);
+        this.webClient = shareitServerWebClient.getIfAvailable();
+        this.responseCache = responseCache;
+    }
+
+    public RestTemplate restTemplate(String apiPrefix) {
+        return builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    // Built without the builder: its metric interceptors would buffer the whole request body in memory.
+    public RestTemplate streamingRestTemplate(String apiPrefix) {
+        RestTemplate restTemplate = new RestTemplate(streamingRequestFactory);
+        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix));
+        return restTemplate;
+    }
+
+    @Nullable
+    public WebClient webClient(String apiPrefix) {
+        if (webClient == null) {
+            return null;
+        }
+        return webClient.mutate()
+                .baseUrl(serverUrl + apiPrefix)
+                .build();
+    }
+
+    public ResponseCache responseCache() {
+        return responseCache;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// A deliberate copy of the server's VirtualThreadConfig: the gateway cannot load classes from the repackaged
+// server jar at runtime. Keep the two in sync.
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class GatewayVirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService gatewayVirtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> gatewayVirtualThreadProtocolHandlerCustomizer(
+            ExecutorService gatewayVirtualThreadExecutor) {
+        return protocolHandler -> {
+            log.info("Запросы обрабатываются в виртуальных потоках.");
+            protocolHandler.setExecutor(gatewayVirtualThreadExecutor);
+        };
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format("виртуальные потоки недоступны в Java %d, " +
+                    "нужна Java 21 или новее.", Runtime.version().feature()), e);
+        }
+    }
+}
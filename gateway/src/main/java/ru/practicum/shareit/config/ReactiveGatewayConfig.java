@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.HandlerResult;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityResultHandler;
+import reactor.core.publisher.Mono;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGatewayConfig {
+
+    // Controllers return Object to serve both stacks. WebFlux picks a result handler by the declared type, so
+    // without this one the ResponseEntity of a client would be written as a JSON body with status 200.
+    @Bean
+    public ResponseEntityResultHandler gatewayResponseEntityResultHandler(ServerCodecConfigurer serverCodecConfigurer,
+            RequestedContentTypeResolver webFluxContentTypeResolver, ReactiveAdapterRegistry webFluxAdapterRegistry) {
+        ResponseEntityResultHandler handler = new ResponseEntityResultHandler(serverCodecConfigurer.getWriters(),
+                webFluxContentTypeResolver, webFluxAdapterRegistry) {
+            @Override
+            public boolean supports(HandlerResult result) {
+                Object value = result.getReturnValue();
+                return result.getReturnType().toClass() == Object.class
+                        && (value instanceof ResponseEntity || value instanceof Mono);
+            }
+        };
+        handler.setOrder(-1);
+        return handler;
+    }
+}
@@ -1,41 +1,54 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String SEARCH_PATH = API_PREFIX + "/search";
+    private static final String REQUESTS_PATH = "/requests";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerClientFactory clientFactory) {
+        super(clientFactory.restTemplate(API_PREFIX), clientFactory.streamingRestTemplate(API_PREFIX),
+                clientFactory.webClient(API_PREFIX), clientFactory.responseCache());
     }
 
     public Object addItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        return evictCachedAfter(post("", userId, itemDto), cache -> {
+            cache.invalidate(SEARCH_PATH);
+            if (itemDto.getRequestId() > 0) {
+                cache.invalidate(REQUESTS_PATH, REQUESTS_PATH + "/all", REQUESTS_PATH + "/" + itemDto.getRequestId());
+            }
+        });
+    }
+
+    public Object importItems(long userId, Resource rows, MediaType contentType) {
+        return evictCachedAfter(post("/bulk", userId, rows, contentType), cache -> {
+            cache.invalidate(SEARCH_PATH);
+            cache.invalidatePrefix(REQUESTS_PATH);
+        });
     }
 
     public Object updateItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+        return evictCachedAfter(patch("/" + itemId, userId, itemDto), cache -> {
+            cache.invalidate(API_PREFIX + "/" + itemId, SEARCH_PATH);
+            cache.invalidatePrefix(REQUESTS_PATH);
+        });
     }
 
-    public Object getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Object getItemById(long userId, long itemId, String ifNoneMatch) {
+        return cachedGet("/" + itemId, userId, null, ifNoneMatch);
     }
 
     public Object getOwnerItems(long ownerId, int from, int size) {
@@ -46,16 +59,42 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", ownerId, parameters);
     }
 
+    public Object getOwnerItems(long ownerId, String token, int size) {
+        Map<String, Object> parameters = Map.of(
+                "token", token,
+                "size", size
+        );
+        return get("?from=0&size={size}&token={token}", ownerId, parameters);
+    }
+
     public Object searchAvailableItems(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", parameters);
+        return cachedGet("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Object searchAvailableItems(String text, String token, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "token", token,
+                "size", size
+        );
+        return cachedGet("/search?text={text}&from=0&size={size}&token={token}", null, parameters);
+    }
+
+    public Object getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
     }
 
     public Object addCommentByItemId(long userId, CommentDto comment, long itemId) {
-        return post("/" + itemId + "/comment", userId, comment);
+        return evictCachedAfter(post("/" + itemId + "/comment", userId, comment),
+                cache -> cache.invalidate(API_PREFIX + "/" + itemId));
     }
 }
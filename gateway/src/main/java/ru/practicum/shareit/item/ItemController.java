@@ -2,7 +2,11 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.exception.ValidationException;
@@ -10,6 +14,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @RestController
@@ -17,6 +22,8 @@ import java.util.Collections;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final ItemClient itemClient;
 
     @PostMapping
@@ -26,6 +33,13 @@ public class ItemController {
         return itemClient.addItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public Object importItems(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
+                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                              @RequestBody InputStreamResource rows) {
+        return itemClient.importItems(userId, rows, contentType);
+    }
+
     @PatchMapping("/{itemId}")
     public Object updateItem(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
                              @RequestBody ItemDto itemDto,
@@ -35,30 +49,53 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public Object getItemById(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
-                              @PathVariable long itemId) {
-        return itemClient.getItemById(userId, itemId);
+                              @PathVariable long itemId,
+                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItemById(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping
     public Object getOwnerItems(@RequestHeader("X-Sharer-User-Id") @NotNull long ownerId,
                                 @RequestParam(defaultValue = "0") int from,
-                                @RequestParam(defaultValue = "10") int size) {
+                                @RequestParam(defaultValue = "10") int size,
+                                @RequestParam(required = false) String token) {
         checkPageBorders(from, size);
+        if (token != null) {
+            return itemClient.getOwnerItems(ownerId, token, size);
+        }
         return itemClient.getOwnerItems(ownerId, from, size);
     }
 
     @GetMapping("/search")
     public Object searchAvailableItems(@RequestParam String text,
                                        @RequestParam(defaultValue = "0") int from,
-                                       @RequestParam(defaultValue = "10") int size) {
+                                       @RequestParam(defaultValue = "10") int size,
+                                       @RequestParam(required = false) String token) {
         if (text.isBlank()) {
             log.info("Пустой поисковый запрос.");
             return new ResponseEntity<Object>(Collections.emptyList(), HttpStatus.OK);
         }
         checkPageBorders(from, size);
+        if (token != null) {
+            return itemClient.searchAvailableItems(text, token, size);
+        }
         return itemClient.searchAvailableItems(text, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Object getItemAvailability(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
+                                      @PathVariable long itemId,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                      LocalDateTime from,
+                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                      LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.error("Начало периода {} не раньше его окончания {}.", from, to);
+            throw new ValidationException(String.format("начало периода %s не раньше его окончания %s.", from, to));
+        }
+        return itemClient.getItemAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public Object addCommentByItemId(@RequestHeader("X-Sharer-User-Id") @NotNull long userId,
                                      @RequestBody CommentDto commentDto,
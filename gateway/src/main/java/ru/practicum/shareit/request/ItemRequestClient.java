@@ -1,12 +1,9 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerClientFactory;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -16,21 +13,17 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(ServerClientFactory clientFactory) {
+        super(clientFactory.restTemplate(API_PREFIX), clientFactory.webClient(API_PREFIX),
+                clientFactory.responseCache());
     }
 
     public Object addRequest(long userId, ItemRequestDto dto) {
-        return post("", userId, dto);
+        return evictCachedAfter(post("", userId, dto), cache -> cache.invalidate(API_PREFIX, API_PREFIX + "/all"));
     }
 
     public Object getAllItemRequestsByOwner(long userId) {
-        return get("", userId);
+        return cachedGet("", userId, null);
     }
 
     public Object getAllItemRequestsByOtherUsers(long userId, int from, int size) {
@@ -38,10 +31,10 @@ public class ItemRequestClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return cachedGet("/all?from={from}&size={size}", userId, parameters);
     }
 
     public Object getItemRequestById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+        return cachedGet("/" + requestId, userId, null);
     }
 }
@@ -0,0 +1,120 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.config.ReactiveGatewayConfig;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.request.ItemRequestController;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(controllers = {ItemController.class, ItemRequestController.class})
+@ContextConfiguration(classes = ShareItGateway.class)
+@ActiveProfiles("reactive")
+@Import(ReactiveGatewayConfig.class)
+class ReactiveGatewayTest {
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private ItemRequestClient requestClient;
+
+    @Autowired
+    private WebTestClient webClient;
+
+    @Test
+    void shouldProxyItemThroughNonBlockingClient() {
+        ItemDto item = new ItemDto(1L, "Paper1", "Newspaper1", true, 0);
+        when(itemClient.addItem(anyLong(), any(ItemDto.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 1, "name", "Paper1"))));
+
+        webClient.post()
+                .uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(item)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.name").isEqualTo("Paper1");
+    }
+
+    @Test
+    void shouldPassServerErrorStatusThrough() {
+        when(itemClient.getItemById(1L, 99L, null))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+
+        webClient.get()
+                .uri("/items/99")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldForwardBulkUploadToNonBlockingClient() {
+        when(itemClient.importItems(anyLong(), any(Resource.class), any(MediaType.class)))
+                .thenReturn(Mono.just(ResponseEntity.ok(Map.of("received", 1, "imported", 1))));
+
+        webClient.post()
+                .uri("/items/bulk")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.valueOf(ItemController.NDJSON_VALUE))
+                .bodyValue("{\"name\":\"Paper1\",\"description\":\"Newspaper1\",\"available\":true}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.imported").isEqualTo(1);
+        verify(itemClient).importItems(eq(1L), any(Resource.class), any(MediaType.class));
+    }
+
+    @Test
+    void shouldRejectBlankCommentWithoutCallingServer() {
+        webClient.post()
+                .uri("/items/1/comment")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CommentDto(0L, " ", null, LocalDateTime.now()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").exists();
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    void shouldRejectInvalidRequestBodyWithBadRequest() {
+        webClient.post()
+                .uri("/requests")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ItemRequestDto(0L, " ", LocalDateTime.now(), List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(requestClient);
+    }
+}
@@ -6,11 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.ShareItGateway;
 import ru.practicum.shareit.Status;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -20,14 +24,14 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
 @ContextConfiguration(classes = ShareItGateway.class)
@@ -150,9 +154,47 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.name", is(item1.getName())));
     }
 
+    @Test
+    void setApprovedByOwnerForBatchWhen200IsReturned() throws Exception {
+        when(client.setApprovedByOwner(anyLong(), any(BookingBatchDto.class)))
+                .thenReturn(ResponseEntity.ok(List.of(Map.of("bookingId", 1, "result", "UPDATED"))));
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(new BookingBatchDto(List.of(1L), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].result", is("UPDATED")));
+    }
+
+    @Test
+    void setApprovedByOwnerForBatchWhenIdsAreEmptyAnd400IsReturned() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(new BookingBatchDto(List.of(), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void getBookingByIdWhen304IsPassedThrough() throws Exception {
+        when(client.getBookingById(1L, 1L, "\"0a1b\""))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"0a1b\"").build());
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0a1b\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0a1b\""));
+    }
+
     @Test
     void getBookingByIdWhen200IsReturned() throws Exception {
-        when(client.getBookingById(anyLong(), anyLong()))
+        when(client.getBookingById(anyLong(), anyLong(), isNull()))
                 .thenReturn(booking1);
         mvc.perform(get("/bookings/1")
                         .content(mapper.writeValueAsString(booking1))
@@ -202,6 +244,37 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].item.name", is(item1.getName())));
     }
 
+    @Test
+    void getAllBookingsByUserIdWithCursorWhen200IsReturned() throws Exception {
+        LocalDateTime cursorStart = LocalDateTime.of(2022, 9, 1, 12, 0);
+        when(client.getAllBookingsByUserId(anyLong(), anyString(), any(LocalDateTime.class), anyLong(), anyInt()))
+                .thenReturn(List.of(booking1));
+        mvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursorStart", "2022-09-01T12:00:00")
+                        .param("cursorId", "5")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$.[0].id", is(booking1.getId()), Long.class));
+        verify(client).getAllBookingsByUserId(2L, "ALL", cursorStart, 5L, 1);
+        verify(client, never()).getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getAllBookingsByOwnerIdWhenCursorIsIncompleteAnd400IsReturned() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursorStart", "2022-09-01T12:00:00")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+        verifyNoInteractions(client);
+    }
+
     @Test
     void getAllBookingsByUserIdWhenFromEqualsNoPositiveAnd400IsReturned() throws Exception {
         when(client.getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt()))
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://shareit-server/items";
+
+    @Test
+    void shouldSendBlockingRequestThroughRestTemplate() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.set("X-Continuation-Token", "MDox");
+        serverHeaders.set("Transfer-Encoding", "chunked");
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON).headers(serverHeaders));
+
+        Object response = new TestClient(rest, null).getById(2, 1);
+
+        server.verify();
+        assertThat(response, instanceOf(ResponseEntity.class));
+        ResponseEntity<?> entity = (ResponseEntity<?>) response;
+        assertThat(body(entity), equalTo("{\"id\":1}"));
+        assertThat(entity.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(entity.getHeaders().getFirst("X-Continuation-Token"), equalTo("MDox"));
+        assertThat(entity.getHeaders().containsKey("Transfer-Encoding"), is(false));
+    }
+
+    @Test
+    void shouldReturnServerErrorBodyFromBlockingRequest() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"нет\"}".getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<?> response = (ResponseEntity<?>) new TestClient(rest, null).getById(2, 1);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(body(response), equalTo("{\"error\":\"нет\"}"));
+    }
+
+    @Test
+    void shouldForwardIfNoneMatchAndPassNotModifiedThrough() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setETag("\"0a1b\"");
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"0a1b\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(serverHeaders));
+
+        ResponseEntity<?> response = (ResponseEntity<?>) new TestClient(rest, null).getIfChanged(2, 1, "\"0a1b\"");
+
+        server.verify();
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(response.getHeaders().getETag(), equalTo("\"0a1b\""));
+        assertThat(response.getBody(), nullValue());
+    }
+
+    @Test
+    void shouldSendRawBodyWithGivenContentType() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(requestTo(SERVER_URL + "/bulk"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"name\":\"Drill\"}\n"))
+                .andRespond(withSuccess("{\"imported\":1}", MediaType.APPLICATION_JSON));
+
+        Resource rows = new InputStreamResource(new ByteArrayInputStream("{\"name\":\"Drill\"}\n"
+                .getBytes(StandardCharsets.UTF_8)));
+        ResponseEntity<?> response = (ResponseEntity<?>) new TestClient(rest, null).importRows(2, rows);
+
+        server.verify();
+        assertThat(body(response), equalTo("{\"imported\":1}"));
+    }
+
+    @Test
+    void shouldSendRawBodyThroughStreamingRestTemplate() {
+        RestTemplate rest = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        RestTemplate streamingRest = new RestTemplate();
+        streamingRest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL));
+        MockRestServiceServer streamingServer = MockRestServiceServer.bindTo(streamingRest).build();
+        streamingServer.expect(requestTo(SERVER_URL + "/bulk"))
+                .andExpect(content().string("{\"name\":\"Drill\"}\n"))
+                .andRespond(withSuccess("{\"imported\":1}", MediaType.APPLICATION_JSON));
+
+        Resource rows = new InputStreamResource(new ByteArrayInputStream("{\"name\":\"Drill\"}\n"
+                .getBytes(StandardCharsets.UTF_8)));
+        new TestClient(rest, streamingRest, null).importRows(2, rows);
+
+        streamingServer.verify();
+        server.verify();
+    }
+
+    @Test
+    void shouldSendNonBlockingRequestThroughWebClient() {
+        AtomicReference<ClientRequest> sent = new AtomicReference<>();
+        WebClient webClient = WebClient.builder()
+                .baseUrl(SERVER_URL)
+                .exchangeFunction(request -> {
+                    sent.set(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                            .body("[{\"id\":1}]")
+                            .build());
+                })
+                .build();
+
+        Object response = new TestClient(new RestTemplate(), webClient).search("дрель");
+
+        assertThat(response, instanceOf(Mono.class));
+        ResponseEntity<?> entity = ((Mono<?>) response).cast(ResponseEntity.class).block();
+        assertThat(sent.get().url().getPath(), equalTo("/items/search"));
+        assertThat(sent.get().headers().getAccept(), equalTo(List.of(MediaType.APPLICATION_JSON)));
+        assertThat(body(entity), equalTo("[{\"id\":1}]"));
+        assertThat(entity.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldReturnServerErrorBodyFromNonBlockingRequest() {
+        WebClient webClient = WebClient.builder()
+                .baseUrl(SERVER_URL)
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.CONFLICT)
+                        .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"error\":\"занято\"}")
+                        .build()))
+                .build();
+
+        ResponseEntity<?> entity = ((Mono<?>) new TestClient(new RestTemplate(), webClient).getById(2, 1))
+                .cast(ResponseEntity.class)
+                .block();
+
+        assertThat(entity.getStatusCode(), equalTo(HttpStatus.CONFLICT));
+        assertThat(body(entity), equalTo("{\"error\":\"занято\"}"));
+    }
+
+    private String body(ResponseEntity<?> entity) {
+        assertThat(entity.getBody(), instanceOf(byte[].class));
+        return new String((byte[]) entity.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, WebClient webClient) {
+            super(rest, webClient);
+        }
+
+        TestClient(RestTemplate rest, RestTemplate streamingRest, WebClient webClient) {
+            super(rest, streamingRest, webClient, null);
+        }
+
+        Object getById(long userId, long itemId) {
+            return get("/" + itemId, userId);
+        }
+
+        Object getIfChanged(long userId, long itemId, String ifNoneMatch) {
+            return conditionalGet("/" + itemId, userId, ifNoneMatch);
+        }
+
+        Object importRows(long userId, Resource rows) {
+            return post("/bulk", userId, rows, MediaType.valueOf("application/x-ndjson"));
+        }
+
+        Object search(String text) {
+            return get("/search?text={text}", Map.of("text", text));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.URI;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ResponseCacheTest {
+    private static final String SERVER_URL = "http://shareit-server";
+
+    private MeterRegistry meterRegistry;
+    private ResponseCache cache;
+    private MockRestServiceServer server;
+    private TestItemClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setEnabled(true);
+        cache = new ResponseCache(SERVER_URL, properties,
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                        .getBeanProvider(MeterRegistry.class));
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL + "/items"));
+        server = MockRestServiceServer.bindTo(rest).ignoreExpectOrder(true).build();
+        client = new TestItemClient(rest, cache);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCachePerUser() {
+        server.expect(ExpectedCount.once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        client.getItem(1, 1);
+        client.getItem(1, 1);
+        client.getItem(2, 1);
+
+        server.verify();
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count(), equalTo(2.0));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedFromCacheWhenEtagMatches() {
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setETag("\"0a1b\"");
+        server.expect(ExpectedCount.once(), requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON).headers(serverHeaders));
+
+        client.getItem(1, 1);
+        ResponseEntity<?> notModified = (ResponseEntity<?>) client.getItemIfChanged(1, 1, "\"0a1b\"");
+        ResponseEntity<?> changed = (ResponseEntity<?>) client.getItemIfChanged(1, 1, "\"ffff\"");
+
+        server.verify();
+        assertThat(notModified.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+        assertThat(notModified.getHeaders().getETag(), equalTo("\"0a1b\""));
+        assertThat(changed.getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        server.expect(ExpectedCount.twice(), requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        client.getItem(1, 1);
+        client.getItem(1, 1);
+
+        server.verify();
+    }
+
+    @Test
+    void shouldReloadItemAfterUpdate() {
+        server.expect(ExpectedCount.twice(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        client.getItem(1, 1);
+        client.updateItem(1, 1);
+        client.getItem(1, 1);
+
+        server.verify();
+    }
+
+    @Test
+    void shouldNotCacheResponseReadBeforeInvalidation() {
+        ResponseCache.Key key = cache.key(URI.create(SERVER_URL + "/items/1"), 1L);
+        long stamp = cache.stamp();
+
+        cache.invalidate("/items/1");
+        cache.put(key, ResponseEntity.ok("{\"name\":\"Дрель\"}"), stamp);
+
+        assertThat(cache.get(key), nullValue());
+        cache.put(key, ResponseEntity.ok("{\"name\":\"Перфоратор\"}"), cache.stamp());
+        assertThat(cache.get(key), notNullValue());
+    }
+
+    @Test
+    void shouldEvictOnlyPagesOfInvalidatedUser() {
+        ResponseCache.Key ownerItem = cache.key(URI.create(SERVER_URL + "/items/1"), 1L);
+        ResponseCache.Key bookerItem = cache.key(URI.create(SERVER_URL + "/items/1"), 2L);
+        ResponseCache.Key ownerRequests = cache.key(URI.create(SERVER_URL + "/requests"), 1L);
+        cache.put(ownerItem, ResponseEntity.ok("{\"id\":1}"), cache.stamp());
+        cache.put(bookerItem, ResponseEntity.ok("{\"id\":1}"), cache.stamp());
+        cache.put(ownerRequests, ResponseEntity.ok("[]"), cache.stamp());
+
+        cache.invalidate(1L, path -> path.startsWith("/items/"));
+
+        assertThat(cache.get(ownerItem), nullValue());
+        assertThat(cache.get(bookerItem), notNullValue());
+        assertThat(cache.get(ownerRequests), notNullValue());
+
+        cache.invalidate("/items/1");
+
+        assertThat(cache.get(bookerItem), nullValue());
+        assertThat(cache.get(ownerRequests), notNullValue());
+    }
+
+    private static class TestItemClient extends BaseClient {
+        TestItemClient(RestTemplate rest, ResponseCache cache) {
+            super(rest, null, cache);
+        }
+
+        Object getItem(long userId, long itemId) {
+            return cachedGet("/" + itemId, userId, null);
+        }
+
+        Object getItemIfChanged(long userId, long itemId, String ifNoneMatch) {
+            return cachedGet("/" + itemId, userId, null, ifNoneMatch);
+        }
+
+        Object updateItem(long userId, long itemId) {
+            return evictCachedAfter(patch("/" + itemId, userId, Map.of("name", "Дрель")),
+                    cache -> cache.invalidate("/items/" + itemId));
+        }
+    }
+}
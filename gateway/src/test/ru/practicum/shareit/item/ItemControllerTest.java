@@ -3,9 +3,12 @@ package ru.practicum.shareit.item;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,11 +25,13 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -185,7 +190,7 @@ class ItemControllerTest {
 
     @Test
     void getItemByIdByOtherUserWithLastBookingAndNextBookingAndCommentsWhen200IsReturned() throws Exception {
-        when(client.getItemById(anyLong(), anyLong()))
+        when(client.getItemById(anyLong(), anyLong(), isNull()))
                 .thenReturn(item1);
         item1.setLastBooking(null);
         item1.setNextBooking(null);
@@ -212,7 +217,7 @@ class ItemControllerTest {
 
     @Test
     void getItemByIdByOwnerWithLastBookingAndNextBookingAndCommentsWhen200IsReturned() throws Exception {
-        when(client.getItemById(anyLong(), anyLong()))
+        when(client.getItemById(anyLong(), anyLong(), isNull()))
                 .thenReturn(item1);
         item1.setLastBooking(lastBooking2);
         item1.setNextBooking(nextBooking2);
@@ -243,7 +248,7 @@ class ItemControllerTest {
 
     @Test
     void getItemByIdByOwnerWithLastBookingAndCommentsWithoutNextBookingWhen200IsReturned() throws Exception {
-        when(client.getItemById(anyLong(), anyLong()))
+        when(client.getItemById(anyLong(), anyLong(), isNull()))
                 .thenReturn(item1);
         item1.setLastBooking(lastBooking2);
         mvc.perform(get("/items/1")
@@ -271,7 +276,7 @@ class ItemControllerTest {
 
     @Test
     void getGetItemByIdByOwnerWithNextBookingAndCommentsWithoutLastBookingWhen200IsReturned() throws Exception {
-        when(client.getItemById(anyLong(), anyLong()))
+        when(client.getItemById(anyLong(), anyLong(), isNull()))
                 .thenReturn(item1);
         item1.setNextBooking(nextBooking2);
         mvc.perform(get("/items/1")
@@ -370,6 +375,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].requestId", is((int) item1.getRequestId())));
     }
 
+    @Test
+    void searchAvailableItemsWithTokenWhen200IsReturned() throws Exception {
+        when(client.searchAvailableItems(anyString(), anyString(), anyInt()))
+                .thenReturn(List.of(item1));
+        mvc.perform(get("/items/search")
+                        .param("text", "paper")
+                        .param("size", "1")
+                        .param("token", "MDox")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(item1.getId()), Long.class));
+        verify(client).searchAvailableItems("paper", "MDox", 1);
+        verify(client, never()).searchAvailableItems(anyString(), anyInt(), anyInt());
+    }
+
     @Test
     void searchAvailableItemsWhenTextIsBlankAnd200IsReturned() throws Exception {
         mvc.perform(get("/items/search")
@@ -441,4 +461,71 @@ class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(400));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailabilityWhen200IsReturned() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(client.getItemAvailability(1L, 1L, from, to))
+                .thenReturn(Map.of("itemId", 1, "busy", List.of(), "free", List.of(List.of(from.toString(),
+                        to.toString()))));
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.busy", hasSize(0)))
+                .andExpect(jsonPath("$.free[0][0]", is(from.toString())));
+    }
+
+    @Test
+    void getItemAvailabilityWhenPeriodIsEmptyAnd400IsReturned() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", from.toString())
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void importItemsWhen200IsReturned() throws Exception {
+        String rows = "{\"name\":\"Paper1\",\"description\":\"Newspaper1\",\"available\":true}\n" +
+                "{\"name\":\"Paper2\",\"description\":\"Newspaper2\",\"available\":false}\n";
+        when(client.importItems(eq(1L), any(Resource.class), any(MediaType.class)))
+                .thenReturn(Map.of("received", 2, "imported", 2, "errors", List.of()));
+        mvc.perform(post("/items/bulk")
+                        .content(rows.getBytes(StandardCharsets.UTF_8))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(ItemController.NDJSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)));
+        ArgumentCaptor<Resource> body = ArgumentCaptor.forClass(Resource.class);
+        ArgumentCaptor<MediaType> contentType = ArgumentCaptor.forClass(MediaType.class);
+        verify(client).importItems(eq(1L), body.capture(), contentType.capture());
+        assertThat(body.getValue(), instanceOf(InputStreamResource.class));
+        assertThat(new String(body.getValue().getInputStream().readAllBytes(), StandardCharsets.UTF_8), equalTo(rows));
+        assertThat(contentType.getValue().equalsTypeAndSubtype(MediaType.valueOf(ItemController.NDJSON_VALUE)),
+                is(true));
+    }
+
+    @Test
+    void importItemsWhenRowsAreInvalidAndServerResponseIsReturned() throws Exception {
+        when(client.importItems(eq(1L), any(Resource.class), any(MediaType.class)))
+                .thenReturn(Map.of("received", 2, "imported", 1, "errors", List.of(Map.of("row", 2))));
+        mvc.perform(post("/items/bulk")
+                        .content("[{\"name\":\"Paper1\",\"description\":\"Newspaper1\",\"available\":true}," +
+                                "{\"name\":\"Paper2\",\"available\":true}]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+    }
+}
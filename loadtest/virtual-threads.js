@@ -0,0 +1,44 @@
+// Нагрузочный тест шлюза: k6 run -e BASE_URL=http://localhost:8080 -e VUS=1000 loadtest/virtual-threads.js
+// Сравнить запуск на стандартном пуле Tomcat (docker compose up) и на виртуальных потоках
+// (docker compose -f docker-compose.yml -f docker-compose.virtual-threads.yml up).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = Number(__ENV.VUS || 1000);
+
+export const options = {
+    scenarios: {
+        search: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '1m', target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<1000'],
+    },
+};
+
+export function setup() {
+    const headers = { 'Content-Type': 'application/json' };
+    const user = http.post(`${BASE_URL}/users`,
+        JSON.stringify({ name: 'load', email: `load${Date.now()}@mail.ru` }), { headers }).json();
+    const item = http.post(`${BASE_URL}/items`,
+        JSON.stringify({ name: 'Дрель', description: 'Дрель для нагрузочного теста', available: true }),
+        { headers: Object.assign({ 'X-Sharer-User-Id': `${user.id}` }, headers) }).json();
+    return { userId: user.id, itemId: item.id };
+}
+
+export default function (data) {
+    const headers = { 'X-Sharer-User-Id': `${data.userId}` };
+    const item = http.get(`${BASE_URL}/items/${data.itemId}`, { headers });
+    check(item, { 'item 200': (r) => r.status === 200 });
+    const search = http.get(`${BASE_URL}/items/search?text=дрель&from=0&size=10`);
+    check(search, { 'search 200': (r) => r.status === 200 });
+}
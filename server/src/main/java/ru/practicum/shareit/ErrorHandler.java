@@ -2,10 +2,12 @@ package ru.practicum.shareit;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -44,6 +46,22 @@ public class ErrorHandler {
         return Map.of("error", String.format("ошибка - %s", e.getMessage()));
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflictException(final ConflictException e) {
+        log.error("Конфликт, {}", e.getMessage());
+        return Map.of("error", String.format("конфликт - %s", e.getMessage()));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleOptimisticLockingFailureException(
+            final ObjectOptimisticLockingFailureException e) {
+        log.error("Параллельное изменение {} id{}.", e.getPersistentClassName(), e.getIdentifier());
+        return Map.of("error", String.format("конфликт - запись %s id%s изменена параллельно, повторите запрос.",
+                e.getPersistentClassName(), e.getIdentifier()));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public Map<String, String> handleThrowableException(final Throwable e) {
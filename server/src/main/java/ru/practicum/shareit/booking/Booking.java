@@ -12,6 +12,9 @@ import ru.practicum.shareit.user.User;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -21,27 +24,44 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Booking {
+    public static final Set<Status> ACTIVE_STATUSES = Collections.unmodifiableSet(
+            EnumSet.of(Status.WAITING, Status.APPROVED));
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private long id;
     @Column(name = "start_date_time")
     private LocalDateTime start;
     @Column(name = "end_date_time")
     private LocalDateTime end;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
+    @EqualsAndHashCode.Exclude
     private Item item;
     @Transient
     private long itemId;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
+    @EqualsAndHashCode.Exclude
     private User booker;
+    @Column(name = "owner_id", updatable = false)
+    private Long ownerId;
     @Enumerated(EnumType.STRING)
     private Status status;
+    @Version
+    private long version;
 
     public Booking(LocalDateTime start, LocalDateTime end, long itemId) {
         this.start = start;
         this.end = end;
         this.itemId = itemId;
     }
+
+    @PrePersist
+    private void copyItemOwner() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
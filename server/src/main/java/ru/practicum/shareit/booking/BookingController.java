@@ -1,12 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.exception.ValidationException;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -32,6 +37,18 @@ public class BookingController {
         return BookingMapper.toBookingDto(bookingService.setApprovedByOwner(userId, bookingId, approved));
     }
 
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> setApprovedByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @RequestBody BookingBatchDto batchDto) {
+        if (batchDto.getApproved() == null) {
+            throw new ValidationException("approved = null.");
+        }
+        if (batchDto.getBookingIds() == null || batchDto.getBookingIds().contains(null)) {
+            throw new ValidationException("bookingIds должен содержать идентификаторы бронирований.");
+        }
+        return bookingService.setApprovedByOwner(userId, batchDto.getBookingIds(), batchDto.getApproved());
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @PathVariable long bookingId) {
@@ -42,21 +59,39 @@ public class BookingController {
     public Collection<BookingDto> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
                                                          @RequestParam String state,
                                                          @RequestParam int from,
-                                                         @RequestParam int size) {
-        return bookingService.getAllBookingsByUserId(userId, state, from, size)
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+                                                         @RequestParam int size,
+                                                         @RequestParam(required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                         LocalDateTime cursorStart,
+                                                         @RequestParam(required = false) Long cursorId) {
+        if (!hasCursor(cursorStart, cursorId)) {
+            return bookingService.getAllBookingsByUserId(userId, state, from, size);
+        }
+        return bookingService.getAllBookingsByUserId(userId, state, cursorStart, cursorId, size);
     }
 
     @GetMapping("/owner")
     public Collection<BookingDto> getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") long userId,
                                                           @RequestParam String state,
                                                           @RequestParam int from,
-                                                          @RequestParam int size) {
-        return bookingService.getAllBookingsByOwnerId(userId, state, from, size)
-                .stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+                                                          @RequestParam int size,
+                                                          @RequestParam(required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime cursorStart,
+                                                          @RequestParam(required = false) Long cursorId) {
+        if (!hasCursor(cursorStart, cursorId)) {
+            return bookingService.getAllBookingsByOwnerId(userId, state, from, size);
+        }
+        return bookingService.getAllBookingsByOwnerId(userId, state, cursorStart, cursorId, size);
+    }
+
+    private boolean hasCursor(LocalDateTime cursorStart, Long cursorId) {
+        if (cursorStart == null && cursorId == null) {
+            return false;
+        }
+        if (cursorStart == null || cursorId == null) {
+            throw new ValidationException("cursorStart и cursorId задаются только вместе.");
+        }
+        return true;
     }
 }
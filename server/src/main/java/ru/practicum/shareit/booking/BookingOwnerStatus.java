@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.Status;
+
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BookingOwnerStatus {
+    private final long bookingId;
+    private final long ownerId;
+    private final Status status;
+
+    public BookingOwnerStatus(long bookingId, long ownerId, Status status) {
+        this.bookingId = bookingId;
+        this.ownerId = ownerId;
+        this.status = status;
+    }
+}
@@ -1,59 +1,233 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findBookingsByBooker_Id(long bookerId, Pageable pageable);
+    String SELECT_BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, " +
+            "b.status, u.id, u.name, u.email, i.id, i.name, i.description, i.isAvailable) " +
+            "from Booking b " +
+            "join b.item i " +
+            "join b.booker u ";
+    String BEFORE_CURSOR = "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) ";
+    String CURSOR_ORDER = "order by b.start desc, b.id desc";
 
-    List<Booking> findBookingsByBooker_IdAndStatus(long bookerId, Status status, Pageable pageable);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    @Query("select b from Booking b " +
-            "left join Item i on b.item.id = i.id " +
-            "where i.owner.id = ?1")
-    List<Booking> findBookingsByOwnerId(long ownerId, Pageable pageable);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :bookingId " +
+            "and b.status = :expected " +
+            "and b.ownerId = :ownerId")
+    int updateStatusByOwner(@Param("bookingId") long bookingId, @Param("ownerId") long ownerId,
+                            @Param("expected") Status expected, @Param("status") Status status);
 
-    @Query("select b from Booking b " +
-            "left join Item i on b.item.id = i.id " +
-            "where i.owner.id = ?1 " +
+    @Query("select new ru.practicum.shareit.booking.BookingOwnerStatus(b.id, b.ownerId, b.status) " +
+            "from Booking b " +
+            "where b.id in :bookingIds")
+    List<BookingOwnerStatus> findOwnerStatusesByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds " +
+            "and b.status = :expected")
+    int updateStatusByIdIn(@Param("bookingIds") Collection<Long> bookingIds, @Param("expected") Status expected,
+                           @Param("status") Status status);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = ?1")
+    List<BookingDto> findBookingsByBooker_Id(long bookerId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = ?1 " +
             "and b.status = ?2")
-    List<Booking> findBookingsByOwnerIdAndStatus(long ownerId, Status status, Pageable pageable);
+    List<BookingDto> findBookingsByBooker_IdAndStatus(long bookerId, Status status, Pageable pageable);
 
-    List<Booking> findBookingsByItem_Id(long itemId);
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1")
+    List<BookingDto> findBookingsByOwnerId(long ownerId, Pageable pageable);
 
-    List<Booking> findByItem_IdAndBooker_IdAndEndBefore(long itemId, long bookerId, LocalDateTime time);
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 " +
+            "and b.status = ?2")
+    List<BookingDto> findBookingsByOwnerIdAndStatus(long ownerId, Status status, Pageable pageable);
 
-    List<Booking> findByBooker_IdAndEndBefore(long bookerId, LocalDateTime time, Pageable pageable);
+    Optional<Booking> findFirstByItem_IdAndEndBeforeOrderByEndDesc(long itemId, LocalDateTime time);
 
-    List<Booking> findByBooker_IdAndStartBeforeAndEndAfter(long bookerId, LocalDateTime eqStart,
-                                                           LocalDateTime eqEnd, Pageable pageable);
+    Optional<Booking> findFirstByItem_IdAndStartAfterOrderByStartAsc(long itemId, LocalDateTime time);
 
-    List<Booking> findByBooker_IdAndStartAfter(long bookerId, LocalDateTime time, Pageable pageable);
+    @Query("select b from Booking b " +
+            "where b.item.id in ?1 " +
+            "and b.end = (select max(l.end) from Booking l where l.item.id = b.item.id and l.end < ?2)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime time);
 
     @Query("select b from Booking b " +
-            "left join Item i on b.item.id = i.id " +
-            "where i.owner.id = ?1 " +
+            "where b.item.id in ?1 " +
+            "and b.start = (select min(n.start) from Booking n where n.item.id = b.item.id and n.start > ?2)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime time);
+
+    List<Booking> findByItem_IdAndBooker_IdAndEndBefore(long itemId, long bookerId, LocalDateTime time);
+
+    boolean existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<Status> statuses,
+                                                                LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.booking.BookingPeriod(b.start, b.end) " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status in :statuses " +
+            "and b.end > :from " +
+            "and b.start < :to " +
+            "order by b.end")
+    List<BookingPeriod> findPeriodsByItemId(@Param("itemId") long itemId,
+                                            @Param("statuses") Collection<Status> statuses,
+                                            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = ?1 " +
             "and b.end < ?2")
-    List<Booking> findByOwner_IdAndEndBefore(long ownerId, LocalDateTime time, Pageable pageable);
+    List<BookingDto> findByBooker_IdAndEndBefore(long bookerId, LocalDateTime time, Pageable pageable);
 
-    @Query("select b from Booking b " +
-            "left join Item i on b.item.id = i.id " +
-            "where i.owner.id = ?1 " +
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = ?1 " +
             "and b.start < ?2 " +
             "and b.end > ?3")
-    List<Booking> findByOwner_IdAndStartBeforeAndEndAfter(long ownerId, LocalDateTime eqStart,
-                                                          LocalDateTime eqEnd, Pageable pageable);
+    List<BookingDto> findByBooker_IdAndStartBeforeAndEndAfter(long bookerId, LocalDateTime eqStart,
+                                                              LocalDateTime eqEnd, Pageable pageable);
 
-    @Query("select b from Booking b " +
-            "left join Item i on b.item.id = i.id " +
-            "where i.owner.id = ?1 " +
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = ?1 " +
+            "and b.start > ?2")
+    List<BookingDto> findByBooker_IdAndStartAfter(long bookerId, LocalDateTime time, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 " +
+            "and b.end < ?2")
+    List<BookingDto> findByOwner_IdAndEndBefore(long ownerId, LocalDateTime time, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 " +
+            "and b.start < ?2 " +
+            "and b.end > ?3")
+    List<BookingDto> findByOwner_IdAndStartBeforeAndEndAfter(long ownerId, LocalDateTime eqStart,
+                                                             LocalDateTime eqEnd, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = ?1 " +
             "and b.start > ?2")
-    List<Booking> findByOwner_IdAndStartAfter(long ownerId, LocalDateTime time, Pageable pageable);
+    List<BookingDto> findByOwner_IdAndStartAfter(long ownerId, LocalDateTime time, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = :bookerId " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findByBooker_IdBeforeCursor(@Param("bookerId") long bookerId,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = :bookerId " +
+            "and b.status = :status " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findByBooker_IdAndStatusBeforeCursor(@Param("bookerId") long bookerId,
+                                                          @Param("status") Status status,
+                                                          @Param("cursorStart") LocalDateTime cursorStart,
+                                                          @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = :bookerId " +
+            "and b.start < :time " +
+            "and b.end > :time " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findCurrentByBooker_IdBeforeCursor(@Param("bookerId") long bookerId,
+                                                        @Param("time") LocalDateTime time,
+                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = :bookerId " +
+            "and b.end < :time " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findPastByBooker_IdBeforeCursor(@Param("bookerId") long bookerId,
+                                                     @Param("time") LocalDateTime time,
+                                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                                     @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where u.id = :bookerId " +
+            "and b.start > :time " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findFutureByBooker_IdBeforeCursor(@Param("bookerId") long bookerId,
+                                                       @Param("time") LocalDateTime time,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = :ownerId " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findByOwner_IdBeforeCursor(@Param("ownerId") long ownerId,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = :ownerId " +
+            "and b.status = :status " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findByOwner_IdAndStatusBeforeCursor(@Param("ownerId") long ownerId,
+                                                         @Param("status") Status status,
+                                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                                         @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = :ownerId " +
+            "and b.start < :time " +
+            "and b.end > :time " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findCurrentByOwner_IdBeforeCursor(@Param("ownerId") long ownerId,
+                                                       @Param("time") LocalDateTime time,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = :ownerId " +
+            "and b.end < :time " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findPastByOwner_IdBeforeCursor(@Param("ownerId") long ownerId,
+                                                    @Param("time") LocalDateTime time,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(SELECT_BOOKING_DTO +
+            "where b.ownerId = :ownerId " +
+            "and b.start > :time " +
+            BEFORE_CURSOR +
+            CURSOR_ORDER)
+    List<BookingDto> findFutureByOwner_IdBeforeCursor(@Param("ownerId") long ownerId,
+                                                      @Param("time") LocalDateTime time,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") long cursorId, Pageable pageable);
 }
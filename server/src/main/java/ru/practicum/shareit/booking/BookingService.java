@@ -1,15 +1,28 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     Booking addBooking(long userId, Booking booking);
 
     Booking setApprovedByOwner(long userId, long bookingId, boolean approved);
 
+    List<BookingBatchResultDto> setApprovedByOwner(long userId, Collection<Long> bookingIds, boolean approved);
+
     Booking getBookingById(long userId, long bookingId);
 
-    Collection<Booking> getAllBookingsByUserId(long userId, String state, int from, int size);
+    Collection<BookingDto> getAllBookingsByUserId(long userId, String state, int from, int size);
+
+    Collection<BookingDto> getAllBookingsByOwnerId(long userId, String status, int from, int size);
+
+    Collection<BookingDto> getAllBookingsByUserId(long userId, String state, LocalDateTime cursorStart, long cursorId,
+                                               int size);
 
-    Collection<Booking> getAllBookingsByOwnerId(long userId, String status, int from, int size);
+    Collection<BookingDto> getAllBookingsByOwnerId(long userId, String status, LocalDateTime cursorStart,
+                                                long cursorId, int size);
 }
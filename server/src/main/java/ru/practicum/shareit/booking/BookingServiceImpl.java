@@ -1,11 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
@@ -15,11 +21,16 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final String PERIOD_CONSTRAINT = "EX_BOOKINGS_ITEM_PERIOD_V1";
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
@@ -33,12 +44,13 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public Booking addBooking(long userId, Booking booking) {
         User user = userRepository.findById(userId).orElseThrow(() -> new ElementNotFoundException(
                 String.format("пользователь с таким id%d.", userId)));
         Item item = itemRepository.findById(booking.getItemId()).orElseThrow(() -> new ElementNotFoundException(
                 String.format("вещь с id%d.", booking.getItemId())));
-        if (user.equals(item.getOwner())) {
+        if (item.getOwner().getId() == user.getId()) {
             log.error("Владелец вещи не может арендовать сам у себя.");
             throw new ElementNotFoundException("Владелец вещи не может арендовать сам у себя.");
         }
@@ -46,18 +58,96 @@ public class BookingServiceImpl implements BookingService {
             log.error("Бронирование вещи id{} недоступно.", item.getId());
             throw new ValidationException(String.format("бронирование вещи id%d недоступно.", item.getId()));
         }
+        if (bookingRepository.existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(item.getId(),
+                Booking.ACTIVE_STATUSES, booking.getEnd(), booking.getStart())) {
+            log.error("Бронирование вещи id{} пересекается с уже существующим.", item.getId());
+            throw new ConflictException(String.format("вещь id%d уже забронирована на период с %s по %s.",
+                    item.getId(), booking.getStart(), booking.getEnd()));
+        }
         booking.setItem(item);
         booking.setBooker(user);
         booking.setStatus(Status.WAITING);
-        log.info("Добавлено бронирование вещи id{}.", item.getId());
-        return bookingRepository.save(booking);
+        try {
+            Booking savedBooking = bookingRepository.saveAndFlush(booking);
+            log.info("Добавлено бронирование вещи id{}.", item.getId());
+            return savedBooking;
+        } catch (DataIntegrityViolationException e) {
+            if (!violatesPeriodConstraint(e)) {
+                throw e;
+            }
+            log.error("Бронирование вещи id{} пересекается с параллельно добавленным.", item.getId());
+            throw new ConflictException(String.format("вещь id%d уже забронирована на период с %s по %s.",
+                    item.getId(), booking.getStart(), booking.getEnd()));
+        }
     }
 
     @Override
+    @Transactional
     public Booking setApprovedByOwner(long userId, long bookingId, boolean approved) {
         checkUserExists(userId);
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        int updated = bookingRepository.updateStatusByOwner(bookingId, userId, Status.WAITING, status);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new ElementNotFoundException(
                 String.format("бронирование с таким id%d.", bookingId)));
+        if (updated == 0) {
+            checkStatusChange(userId, booking, status);
+        }
+        if (approved) {
+            log.info("Подтверждено бронирование id{} вещи id{}.", bookingId, booking.getItem().getId());
+        } else {
+            log.info("Отклонено бронирование id{} вещи id{}.", bookingId, booking.getItem().getId());
+        }
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> setApprovedByOwner(long userId, Collection<Long> bookingIds,
+                                                          boolean approved) {
+        checkUserExists(userId);
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.isEmpty()) {
+            throw new ValidationException("список бронирований пуст.");
+        }
+        Map<Long, BookingOwnerStatus> bookings = bookingRepository.findOwnerStatusesByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingOwnerStatus::getBookingId, Function.identity()));
+        Map<Long, BookingBatchResultDto> results = new LinkedHashMap<>();
+        List<Long> waiting = new ArrayList<>();
+        for (long id : ids) {
+            BookingOwnerStatus booking = bookings.get(id);
+            if (booking == null) {
+                results.put(id, new BookingBatchResultDto(id, BookingBatchResultDto.Result.NOT_FOUND, null));
+            } else if (booking.getOwnerId() != userId) {
+                results.put(id, new BookingBatchResultDto(id, BookingBatchResultDto.Result.FORBIDDEN, null));
+            } else if (booking.getStatus() == status) {
+                results.put(id, new BookingBatchResultDto(id, BookingBatchResultDto.Result.UNCHANGED, status));
+            } else if (booking.getStatus() != Status.WAITING) {
+                results.put(id, new BookingBatchResultDto(id, BookingBatchResultDto.Result.CONFLICT,
+                        booking.getStatus()));
+            } else {
+                results.put(id, new BookingBatchResultDto(id, BookingBatchResultDto.Result.UPDATED, status));
+                waiting.add(id);
+            }
+        }
+        if (waiting.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+        int updated = bookingRepository.updateStatusByIdIn(waiting, Status.WAITING, status);
+        if (updated != waiting.size()) {
+            for (BookingOwnerStatus booking : bookingRepository.findOwnerStatusesByIdIn(waiting)) {
+                if (booking.getStatus() != status) {
+                    results.put(booking.getBookingId(), new BookingBatchResultDto(booking.getBookingId(),
+                            BookingBatchResultDto.Result.CONFLICT, booking.getStatus()));
+                }
+            }
+        }
+        log.info("Владелец id{} изменил статус {} бронирований на {}.", userId, updated, status);
+        return new ArrayList<>(results.values());
+    }
+
+    private void checkStatusChange(long userId, Booking booking, Status status) {
+        long bookingId = booking.getId();
         if (booking.getItem().getOwner().getId() != userId) {
             if (booking.getBooker().getId() == userId) {
                 log.error("Арендатор id{} не имеет доступа для изменения статуса бронирования id{}.", userId,
@@ -70,22 +160,13 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException(String.format("пользователь id%d не имеет доступа для изменения " +
                     "статуса бронирования id%d.", userId, bookingId));
         }
-        if (approved) {
-            if (booking.getStatus().equals(Status.APPROVED)) {
-                log.error("Повторное изменение статуса на идентичный не допускается.");
-                throw new ValidationException("Повторное изменение статуса на идентичный не допускается.");
-            }
-            booking.setStatus(Status.APPROVED);
-            log.info("Подтверждено бронирование id{} вещи id{}.", bookingId, booking.getItem().getId());
-        } else {
-            if (booking.getStatus().equals(Status.REJECTED)) {
-                log.error("Повторное изменение статуса на идентичный не допускается.");
-                throw new ValidationException("Повторное изменение статуса на идентичный не допускается.");
-            }
-            booking.setStatus(Status.REJECTED);
-            log.info("Отклонено бронирование id{} вещи id{}.", bookingId, booking.getItem().getId());
+        if (booking.getStatus().equals(status)) {
+            log.error("Повторное изменение статуса на идентичный не допускается.");
+            throw new ValidationException("Повторное изменение статуса на идентичный не допускается.");
         }
-        return bookingRepository.save(booking);
+        log.error("Бронирование id{} уже рассмотрено, текущий статус {}.", bookingId, booking.getStatus());
+        throw new ConflictException(String.format("бронирование id%d уже рассмотрено, текущий статус %s.",
+                bookingId, booking.getStatus()));
     }
 
     @Override
@@ -102,9 +183,9 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<Booking> getAllBookingsByUserId(long bookerId, String status, int from, int size) {
+    public Collection<BookingDto> getAllBookingsByUserId(long bookerId, String status, int from, int size) {
         int page1 = from / size;
-        Pageable page = PageRequest.of(page1, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(page1, size, Sort.by("start").descending().and(Sort.by("id").descending()));
         checkUserExists(bookerId);
         String status1 = status.toUpperCase();
         switch (status1) {
@@ -127,9 +208,9 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<Booking> getAllBookingsByOwnerId(long ownerId, String status, int from, int size) {
+    public Collection<BookingDto> getAllBookingsByOwnerId(long ownerId, String status, int from, int size) {
         int page1 = from / size;
-        Pageable page = PageRequest.of(page1, size, Sort.by("start").descending());
+        Pageable page = PageRequest.of(page1, size, Sort.by("start").descending().and(Sort.by("id").descending()));
         checkUserExists(ownerId);
         String status1 = status.toUpperCase();
         switch (status1) {
@@ -151,12 +232,68 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.findBookingsByOwnerIdAndStatus(ownerId, Status.valueOf(status1), page);
     }
 
+    @Override
+    public Collection<BookingDto> getAllBookingsByUserId(long bookerId, String status, LocalDateTime cursorStart,
+                                                      long cursorId, int size) {
+        Pageable page = PageRequest.of(0, size);
+        checkUserExists(bookerId);
+        LocalDateTime now = LocalDateTime.now();
+        String status1 = status.toUpperCase();
+        log.info("Запрошен список бронирований арендатора id{} со статусом {} после бронирования id{}.", bookerId,
+                status1, cursorId);
+        switch (status1) {
+            case ("ALL"):
+                return bookingRepository.findByBooker_IdBeforeCursor(bookerId, cursorStart, cursorId, page);
+            case ("CURRENT"):
+                return bookingRepository.findCurrentByBooker_IdBeforeCursor(bookerId, now, cursorStart, cursorId,
+                        page);
+            case ("PAST"):
+                return bookingRepository.findPastByBooker_IdBeforeCursor(bookerId, now, cursorStart, cursorId, page);
+            case ("FUTURE"):
+                return bookingRepository.findFutureByBooker_IdBeforeCursor(bookerId, now, cursorStart, cursorId,
+                        page);
+        }
+        return bookingRepository.findByBooker_IdAndStatusBeforeCursor(bookerId, Status.valueOf(status1),
+                cursorStart, cursorId, page);
+    }
+
+    @Override
+    public Collection<BookingDto> getAllBookingsByOwnerId(long ownerId, String status, LocalDateTime cursorStart,
+                                                       long cursorId, int size) {
+        Pageable page = PageRequest.of(0, size);
+        checkUserExists(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        String status1 = status.toUpperCase();
+        log.info("Запрошен список бронирований владельца id{} со статусом {} после бронирования id{}.", ownerId,
+                status1, cursorId);
+        switch (status1) {
+            case ("ALL"):
+                return bookingRepository.findByOwner_IdBeforeCursor(ownerId, cursorStart, cursorId, page);
+            case ("CURRENT"):
+                return bookingRepository.findCurrentByOwner_IdBeforeCursor(ownerId, now, cursorStart, cursorId,
+                        page);
+            case ("PAST"):
+                return bookingRepository.findPastByOwner_IdBeforeCursor(ownerId, now, cursorStart, cursorId, page);
+            case ("FUTURE"):
+                return bookingRepository.findFutureByOwner_IdBeforeCursor(ownerId, now, cursorStart, cursorId,
+                        page);
+        }
+        return bookingRepository.findByOwner_IdAndStatusBeforeCursor(ownerId, Status.valueOf(status1),
+                cursorStart, cursorId, page);
+    }
+
     private void checkUserExists(long userId) {
         if (!userRepository.existsById(userId)) {
             log.error("Пользователь id{} не найден.", userId);
             throw new ElementNotFoundException(String.format("пользователь с таким id%d.", userId));
         }
     }
-}
-
 
+    private static boolean violatesPeriodConstraint(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException) {
+            String constraint = ((ConstraintViolationException) e.getCause()).getConstraintName();
+            return constraint != null && constraint.toUpperCase(Locale.ROOT).contains(PERIOD_CONSTRAINT);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class BookingBatchDto {
+    private List<Long> bookingIds;
+    private Boolean approved;
+
+    public BookingBatchDto(List<Long> bookingIds, Boolean approved) {
+        this.bookingIds = bookingIds;
+        this.approved = approved;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.practicum.shareit.item.Status;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class BookingBatchResultDto {
+    private long bookingId;
+    private Result result;
+    private Status status;
+
+    public BookingBatchResultDto(long bookingId, Result result, Status status) {
+        this.bookingId = bookingId;
+        this.result = result;
+        this.status = status;
+    }
+
+    public enum Result {
+        UPDATED, UNCHANGED, CONFLICT, FORBIDDEN, NOT_FOUND
+    }
+}
@@ -9,6 +9,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 
 @Getter
 @Setter
@@ -32,4 +33,12 @@ public class BookingDto {
         this.booker = booker;
         this.item = item;
     }
+
+    public BookingDto(long id, LocalDateTime start, LocalDateTime end, Status status, long bookerId,
+                      String bookerName, String bookerEmail, long itemId, String itemName, String itemDescription,
+                      Boolean itemAvailable) {
+        this(id, start, end, status, new UserDto(bookerId, bookerName, bookerEmail),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, 0));
+        this.item.setComments(new ArrayList<>());
+    }
 }
@@ -1,9 +1,15 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItem_Id(long itemId);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAllByItem_IdIn(Collection<Long> itemIds);
 }
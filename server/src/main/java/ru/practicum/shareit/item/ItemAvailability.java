@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.BookingPeriod;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Getter
+public class ItemAvailability {
+    private final long itemId;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final List<BookingPeriod> busy;
+    private final List<BookingPeriod> free;
+
+    private ItemAvailability(long itemId, LocalDateTime from, LocalDateTime to, List<BookingPeriod> busy,
+                             List<BookingPeriod> free) {
+        this.itemId = itemId;
+        this.from = from;
+        this.to = to;
+        this.busy = busy;
+        this.free = free;
+    }
+
+    public static ItemAvailability of(long itemId, LocalDateTime from, LocalDateTime to,
+                                      List<BookingPeriod> periods) {
+        List<BookingPeriod> periodsByStart = new ArrayList<>(periods);
+        periodsByStart.sort(Comparator.comparing(BookingPeriod::getStart));
+        List<BookingPeriod> busy = new ArrayList<>();
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+        for (BookingPeriod period : periodsByStart) {
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (busyEnd != null && !start.isAfter(busyEnd)) {
+                if (end.isAfter(busyEnd)) {
+                    busyEnd = end;
+                }
+                continue;
+            }
+            if (busyEnd != null) {
+                busy.add(new BookingPeriod(busyStart, busyEnd));
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (busyEnd != null) {
+            busy.add(new BookingPeriod(busyStart, busyEnd));
+        }
+        List<BookingPeriod> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+        for (BookingPeriod period : busy) {
+            if (period.getStart().isAfter(freeStart)) {
+                free.add(new BookingPeriod(freeStart, period.getStart()));
+            }
+            freeStart = period.getEnd();
+        }
+        if (to.isAfter(freeStart)) {
+            free.add(new BookingPeriod(freeStart, to));
+        }
+        return new ItemAvailability(itemId, from, to, busy, free);
+    }
+}
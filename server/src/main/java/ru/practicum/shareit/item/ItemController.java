@@ -1,20 +1,32 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemOwnerDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -23,6 +35,12 @@ public class ItemController {
         return ItemMapper.toItemDto(itemService.addItem(userId, item));
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, ItemImporter.NDJSON_VALUE})
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           InputStream body) throws IOException {
+        return itemImporter.importItems(userId, body);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
                               @RequestBody ItemDto itemDto,
@@ -42,23 +60,31 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemOwnerDto> getOwnerItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                  @RequestParam int from,
-                                                  @RequestParam int size) {
-        return itemService.getOwnerItems(ownerId, from, size)
-                .stream()
-                .map(ItemMapper::toItemOwnerDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<Collection<ItemOwnerDto>> getOwnerItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                  @RequestParam int from,
+                                                                  @RequestParam int size,
+                                                                  @RequestParam(required = false) String token) {
+        Collection<Item> items = token == null
+                ? itemService.getOwnerItems(ownerId, from, size)
+                : itemService.getOwnerItems(ownerId, ItemCursor.decode(token), size);
+        return withContinuationToken(items, size, ItemCursor::after)
+                .body(items.stream()
+                        .map(ItemMapper::toItemOwnerDto)
+                        .collect(Collectors.toList()));
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> searchAvailableItems(@RequestParam String text,
-                                                    @RequestParam int from,
-                                                    @RequestParam int size) {
-        return itemService.searchAvailableItems(text, from, size)
-                .stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<Collection<ItemDto>> searchAvailableItems(@RequestParam String text,
+                                                                    @RequestParam int from,
+                                                                    @RequestParam int size,
+                                                                    @RequestParam(required = false) String token) {
+        Collection<Item> items = token == null
+                ? itemService.searchAvailableItems(text, from, size)
+                : itemService.searchAvailableItems(text, ItemCursor.decode(token), size);
+        return withContinuationToken(items, size, item -> ItemCursor.afterSearchResult(text, item))
+                .body(items.stream()
+                        .map(ItemMapper::toItemDto)
+                        .collect(Collectors.toList()));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -68,4 +94,25 @@ public class ItemController {
         Comment comment = ItemMapper.toComment(commentDto);
         return ItemMapper.toCommentDto(itemService.addCommentByItemId(userId, comment, itemId));
     }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        return ItemMapper.toItemAvailabilityDto(itemService.getItemAvailability(userId, itemId, from, to));
+    }
+
+    private ResponseEntity.BodyBuilder withContinuationToken(Collection<Item> items, int size,
+                                                             Function<Item, ItemCursor> cursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == size) {
+            items.stream()
+                    .reduce((first, second) -> second)
+                    .ifPresent(last -> response.header(CONTINUATION_TOKEN_HEADER, cursor.apply(last).encode()));
+        }
+        return response;
+    }
 }
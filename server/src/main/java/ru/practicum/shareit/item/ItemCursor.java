@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+@Getter
+@EqualsAndHashCode
+public class ItemCursor {
+    public static final int NAME_RANK = 0;
+    public static final int DESCRIPTION_RANK = 1;
+    public static final ItemCursor FIRST = new ItemCursor(NAME_RANK, 0);
+
+    private final int rank;
+    private final long id;
+
+    public ItemCursor(int rank, long id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    public static ItemCursor after(Item item) {
+        return new ItemCursor(NAME_RANK, item.getId());
+    }
+
+    public static ItemCursor afterSearchResult(String text, Item item) {
+        String query = text.toUpperCase(Locale.ROOT);
+        boolean nameMatches = item.getName() != null && item.getName().toUpperCase(Locale.ROOT).contains(query);
+        return new ItemCursor(nameMatches ? NAME_RANK : DESCRIPTION_RANK, item.getId());
+    }
+
+    public String encode() {
+        String value = rank + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split(":");
+            int rank = Integer.parseInt(parts[0]);
+            long id = Long.parseLong(parts[1]);
+            if (parts.length != 2 || (rank != NAME_RANK && rank != DESCRIPTION_RANK) || id < 0) {
+                throw new IllegalArgumentException(value);
+            }
+            return new ItemCursor(rank, id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ValidationException(String.format("токен продолжения %s.", token));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemImporter {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    static final String UNIQUE_NAME_CONSTRAINT = "UQ_OWNER_ITEM_NAME";
+
+    private final ItemService itemService;
+    private final ObjectReader reader;
+    private final int chunkSize;
+
+    @Autowired
+    public ItemImporter(ItemService itemService, ObjectMapper objectMapper,
+                        @Value("${shareit.items.import.chunk-size:500}") int chunkSize) {
+        this.itemService = itemService;
+        this.reader = objectMapper.readerFor(ItemDto.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public ItemImportResultDto importItems(long userId, InputStream body) throws IOException {
+        itemService.checkUserById(userId);
+        Map<String, Integer> rowsByName = new HashMap<>();
+        Map<Integer, ItemDto> chunk = new LinkedHashMap<>();
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        int row = 0;
+        int imported = 0;
+        try (MappingIterator<ItemDto> rows = reader.readValues(body)) {
+            while (rows.hasNextValue()) {
+                ItemDto itemDto = rows.nextValue();
+                row++;
+                String invalid = checkRow(itemDto);
+                if (invalid != null) {
+                    errors.add(new ItemImportErrorDto(row, itemDto.getName(), invalid));
+                    continue;
+                }
+                Integer firstRow = rowsByName.putIfAbsent(itemDto.getName(), row);
+                if (firstRow != null) {
+                    errors.add(new ItemImportErrorDto(row, itemDto.getName(), String.format(
+                            "%s: название уже встречалось в строке %d.", UNIQUE_NAME_CONSTRAINT, firstRow)));
+                    continue;
+                }
+                chunk.put(row, itemDto);
+                if (chunk.size() == chunkSize) {
+                    imported += importChunk(userId, chunk, errors);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Загрузка вещей пользователя id{} остановлена на строке {}: {}", userId, row + 1,
+                    e.getOriginalMessage());
+            errors.add(new ItemImportErrorDto(row + 1, null, "некорректный JSON: " + e.getOriginalMessage()));
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(userId, chunk, errors);
+        }
+        if (row == 0 && errors.isEmpty()) {
+            log.error("Загрузка вещей пользователя id{} не содержит ни одной вещи.", userId);
+            throw new ValidationException("загрузка не содержит ни одной вещи.");
+        }
+        errors.sort(Comparator.comparingInt(ItemImportErrorDto::getRow));
+        log.info("Загружено {} из {} вещей пользователя id{}.", imported, row, userId);
+        return new ItemImportResultDto(row, imported, errors);
+    }
+
+    private int importChunk(long userId, Map<Integer, ItemDto> chunk, List<ItemImportErrorDto> errors) {
+        Set<String> existingNames = itemService.findOwnerItemNames(userId, chunk.values().stream()
+                .map(ItemDto::getName)
+                .collect(Collectors.toSet()));
+        Map<Integer, ItemDto> newItems = new LinkedHashMap<>();
+        chunk.forEach((row, itemDto) -> {
+            if (existingNames.contains(itemDto.getName())) {
+                errors.add(new ItemImportErrorDto(row, itemDto.getName(), String.format(
+                        "%s: у пользователя уже есть вещь с таким названием.", UNIQUE_NAME_CONSTRAINT)));
+            } else {
+                newItems.put(row, itemDto);
+            }
+        });
+        if (newItems.isEmpty()) {
+            return 0;
+        }
+        try {
+            return itemService.addItems(userId, newItems.values().stream()
+                    .map(ItemMapper::toItem)
+                    .collect(Collectors.toList())).size();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Пакет из {} вещей пользователя id{} отклонён базой данных, вещи добавляются по одной.",
+                    newItems.size(), userId);
+        }
+        int imported = 0;
+        for (Map.Entry<Integer, ItemDto> entry : newItems.entrySet()) {
+            try {
+                itemService.addItems(userId, List.of(ItemMapper.toItem(entry.getValue())));
+                imported++;
+            } catch (DataIntegrityViolationException e) {
+                errors.add(new ItemImportErrorDto(entry.getKey(), entry.getValue().getName(), describe(e)));
+            }
+        }
+        return imported;
+    }
+
+    // The gateway forwards the upload as a stream, so rows are validated here while they are read.
+    private static String checkRow(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "item.Name = null или item.Name состоит из пробелов.";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "item.Description = null или состоит из пробелов.";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "item.isAvailable = null.";
+        }
+        return null;
+    }
+
+    private static String describe(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException) {
+            String constraint = ((ConstraintViolationException) e.getCause()).getConstraintName();
+            if (constraint != null && constraint.toUpperCase(Locale.ROOT).contains(UNIQUE_NAME_CONSTRAINT)) {
+                return String.format("%s: у пользователя уже есть вещь с таким названием.", UNIQUE_NAME_CONSTRAINT);
+            }
+        }
+        return "нарушено ограничение целостности данных.";
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,10 +13,33 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i from Item as i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
-            "and i.isAvailable = true")
+            "and i.isAvailable = true " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id")
     List<Item> searchAvailableItems(String text, Pageable pageable);
 
     List<Item> searchAvailableItemsByRequest_Id(long requestId);
 
+    List<Item> searchAvailableItemsByRequest_IdIn(Collection<Long> requestIds);
+
+    @Query("select i from Item as i " +
+            "where upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "and i.isAvailable = true " +
+            "and i.id > ?2 " +
+            "order by i.id")
+    List<Item> searchAvailableItemsByNameAfter(String text, long id, Pageable pageable);
+
+    @Query("select i from Item as i " +
+            "where upper(i.name) not like upper(concat('%', ?1, '%')) " +
+            "and upper(i.description) like upper(concat('%', ?1, '%')) " +
+            "and i.isAvailable = true " +
+            "and i.id > ?2 " +
+            "order by i.id")
+    List<Item> searchAvailableItemsByDescriptionAfter(String text, long id, Pageable pageable);
+
     List<Item> findItemsByOwnerId(long ownerId, Pageable pageable);
+
+    List<Item> findItemsByOwnerIdAndIdGreaterThanOrderByIdAsc(long ownerId, long id, Pageable pageable);
+
+    @Query("select i.name from Item as i where i.owner.id = ?1 and i.name in ?2")
+    List<String> findNamesByOwnerIdAndNameIn(long ownerId, Collection<String> names);
 }
@@ -0,0 +1,257 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Items are numbered densely in the order they are indexed; postings and the availability bitset hold these
+    // ordinals instead of boxed ids.
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<IndexedItem> items = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BitSet available = new BitSet();
+    private volatile boolean ready;
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // Shorter queries have no trigram to look up and would scan every available item; they go to the database.
+    public boolean canSearch(String text) {
+        return isReady() && text.length() >= GRAM_LENGTH;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            items.clear();
+            postings.clear();
+            available.clear();
+            Page<Item> page = itemRepository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            page.forEach(item -> apply(IndexedItem.of(item)));
+            while (page.hasNext()) {
+                page = itemRepository.findAll(page.nextPageable());
+                page.forEach(item -> apply(IndexedItem.of(item)));
+            }
+            ready = true;
+            log.info("Поисковый индекс вещей построен, проиндексировано {} вещей.", items.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+        IndexedItem indexedItem = IndexedItem.of(item);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putNow(indexedItem);
+                }
+            });
+        } else {
+            putNow(indexedItem);
+        }
+    }
+
+    public List<Long> search(String text) {
+        return search(text, ItemCursor.FIRST);
+    }
+
+    public List<Long> search(String text, ItemCursor after) {
+        if (text.length() < GRAM_LENGTH) {
+            return Collections.emptyList();
+        }
+        boolean afterName = after.getRank() == ItemCursor.NAME_RANK;
+        String query = text.toUpperCase(Locale.ROOT);
+        List<Long> byName = new ArrayList<>();
+        List<Long> byDescription = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet candidates = findCandidates(query);
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                IndexedItem item = items.get(ordinal);
+                if (item.name.contains(query)) {
+                    if (afterName && item.id > after.getId()) {
+                        byName.add(item.id);
+                    }
+                } else if (item.description.contains(query)) {
+                    if (afterName || item.id > after.getId()) {
+                        byDescription.add(item.id);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(byName);
+        Collections.sort(byDescription);
+        byName.addAll(byDescription);
+        return byName;
+    }
+
+    private BitSet findCandidates(String query) {
+        List<Postings> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Postings ordinalsOfGram = postings.get(gram);
+            if (ordinalsOfGram == null) {
+                return new BitSet();
+            }
+            lists.add(ordinalsOfGram);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+        Postings shortest = lists.get(0);
+        BitSet result = new BitSet();
+        for (int i = 0; i < shortest.size(); i++) {
+            int ordinal = shortest.get(i);
+            if (available.get(ordinal) && lists.stream().allMatch(list -> list.contains(ordinal))) {
+                result.set(ordinal);
+            }
+        }
+        return result;
+    }
+
+    private void putNow(IndexedItem item) {
+        lock.writeLock().lock();
+        try {
+            apply(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(IndexedItem item) {
+        Integer ordinal = ordinals.get(item.id);
+        if (ordinal == null) {
+            ordinal = items.size();
+            ordinals.put(item.id, ordinal);
+            items.add(item);
+        } else {
+            IndexedItem previous = items.set(ordinal, item);
+            for (String gram : previous.grams()) {
+                Postings ordinalsOfGram = postings.get(gram);
+                ordinalsOfGram.remove(ordinal);
+                if (ordinalsOfGram.size() == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        for (String gram : item.grams()) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(ordinal);
+        }
+        available.set(ordinal, item.available);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    // Sorted ordinals of the items containing one trigram, in a growable int array.
+    private static class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private int size() {
+            return size;
+        }
+
+        private int get(int index) {
+            return ordinals[index];
+        }
+
+        private boolean contains(int ordinal) {
+            return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+        }
+
+        private void add(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+            ordinals[index] = ordinal;
+            size++;
+        }
+
+        private void remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+            size--;
+        }
+    }
+
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        private IndexedItem(long id, String name, String description, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        private static IndexedItem of(Item item) {
+            return new IndexedItem(
+                    item.getId(),
+                    item.getName() == null ? "" : item.getName().toUpperCase(Locale.ROOT),
+                    item.getDescription() == null ? "" : item.getDescription().toUpperCase(Locale.ROOT),
+                    Boolean.TRUE.equals(item.getIsAvailable()));
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+}
@@ -1,22 +1,36 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface ItemService {
     Item addItem(long userId, Item item);
 
+    List<Item> addItems(long userId, List<Item> items);
+
+    Set<String> findOwnerItemNames(long ownerId, Collection<String> names);
+
     Item updateItem(long userId, long itemId, Item updatedItem);
 
     Item getItemById(long userId, long id);
 
     Collection<Item> getOwnerItems(long ownerId, int from, int size);
 
+    Collection<Item> getOwnerItems(long ownerId, ItemCursor cursor, int size);
+
     List<Item> searchAvailableItemsByRequestId(long requestId);
 
+    List<Item> searchAvailableItemsByRequestIds(Collection<Long> requestIds);
+
     Collection<Item> searchAvailableItems(String text, int from, int size);
 
+    Collection<Item> searchAvailableItems(String text, ItemCursor cursor, int size);
+
     Comment addCommentByItemId(long userId, Comment comment, long itemId);
 
+    ItemAvailability getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
+
     void checkUserById(long userId);
 }
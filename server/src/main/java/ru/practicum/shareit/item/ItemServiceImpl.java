@@ -4,20 +4,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @Slf4j
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
@@ -26,19 +31,22 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
 
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchIndex searchIndex;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository, UserRepository userRepository,
                            BookingRepository bookingRepository, CommentRepository commentRepository,
-                           ItemRequestRepository requestRepository) {
+                           ItemRequestRepository requestRepository, ItemSearchIndex searchIndex) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.requestRepository = requestRepository;
+        this.searchIndex = searchIndex;
     }
 
     @Override
+    @Transactional
     public Item addItem(long userId, Item item) {
         User user = userRepository.findById(userId).orElseThrow(() -> new ElementNotFoundException(
                 String.format("пользователь с таким id%d.", userId)));
@@ -47,10 +55,44 @@ public class ItemServiceImpl implements ItemService {
             requestRepository.findById(item.getRequestId()).ifPresent(item::setRequest);
         }
         log.info("Добавлена новая вещь {} пользователя id{}.", item, item.getOwner().getId());
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        searchIndex.put(savedItem);
+        return savedItem;
     }
 
     @Override
+    @Transactional
+    public List<Item> addItems(long userId, List<Item> items) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new ElementNotFoundException(
+                String.format("пользователь с таким id%d.", userId)));
+        Set<Long> requestIds = items.stream()
+                .map(Item::getRequestId)
+                .filter(requestId -> requestId > 0)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of() : requestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        for (Item item : items) {
+            item.setOwner(user);
+            item.setRequest(requests.get(item.getRequestId()));
+        }
+        List<Item> savedItems = itemRepository.saveAll(items);
+        itemRepository.flush();
+        savedItems.forEach(searchIndex::put);
+        log.info("Добавлено {} вещей пользователя id{}.", savedItems.size(), userId);
+        return savedItems;
+    }
+
+    @Override
+    public Set<String> findOwnerItemNames(long ownerId, Collection<String> names) {
+        if (names.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(itemRepository.findNamesByOwnerIdAndNameIn(ownerId, names));
+    }
+
+    @Override
+    @Transactional
     public Item updateItem(long userId, long itemId, Item updatedItem) {
         checkUserById(userId);
         Item item = getItemById(userId, itemId);
@@ -71,7 +113,9 @@ public class ItemServiceImpl implements ItemService {
             item.setIsAvailable(updatedItem.getIsAvailable());
         }
         log.info("Обновлены данные вещи id{} пользователя id{}.", item.getId(), item.getOwner().getId());
-        return itemRepository.save(item);
+        Item savedItem = itemRepository.save(item);
+        searchIndex.put(savedItem);
+        return savedItem;
     }
 
     @Override
@@ -93,17 +137,11 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private Item addIntoItemLastAndNextBookings(Item item) {
-        Collection<Booking> itemsBookings = bookingRepository.findBookingsByItem_Id(item.getId());
-        if (!itemsBookings.isEmpty()) {
-            Optional<Booking> lastBooking = itemsBookings.stream()
-                    .filter(i -> i.getEnd().isBefore(LocalDateTime.now()))
-                    .findFirst();
-            lastBooking.ifPresent(item::setLastBooking);
-            Optional<Booking> nextBooking = itemsBookings.stream()
-                    .filter(i -> i.getStart().isAfter(LocalDateTime.now()))
-                    .findFirst();
-            nextBooking.ifPresent(item::setNextBooking);
-        }
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findFirstByItem_IdAndEndBeforeOrderByEndDesc(item.getId(), now)
+                .ifPresent(item::setLastBooking);
+        bookingRepository.findFirstByItem_IdAndStartAfterOrderByStartAsc(item.getId(), now)
+                .ifPresent(item::setNextBooking);
         return item;
     }
 
@@ -115,28 +153,107 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public Collection<Item> getOwnerItems(long ownerId, int from, int size) {
-        Pageable page = PageRequest.of(from, size);
+        Pageable page = PageRequest.of(from, size, Sort.by("id"));
         checkUserById(ownerId);
         log.info("Запрошен список вещей пользователя {}.", ownerId);
-        Collection<Item> ownerItems = itemRepository.findItemsByOwnerId(ownerId, page);
+        return addOwnerDetails(itemRepository.findItemsByOwnerId(ownerId, page));
+    }
+
+    @Override
+    public Collection<Item> getOwnerItems(long ownerId, ItemCursor cursor, int size) {
+        checkUserById(ownerId);
+        log.info("Запрошен список вещей пользователя {} после вещи id{}.", ownerId, cursor.getId());
+        return addOwnerDetails(itemRepository.findItemsByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, cursor.getId(),
+                PageRequest.of(0, size)));
+    }
+
+    private Collection<Item> addOwnerDetails(Collection<Item> ownerItems) {
         if (ownerItems.isEmpty()) {
             return Collections.emptyList();
         }
+        Set<Long> itemIds = ownerItems.stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+        addCommentsIntoItems(ownerItems, itemIds);
+        addIntoItemsLastAndNextBookings(ownerItems, itemIds);
         return ownerItems.stream()
-                .map(this::addCommentsIntoItem)
-                .map(this::addIntoItemLastAndNextBookings)
                 .sorted(Comparator.comparing(Item::getId))
                 .collect(Collectors.toList());
     }
 
+    private void addCommentsIntoItems(Collection<Item> items, Set<Long> itemIds) {
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItem_IdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        items.forEach(item -> item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>())));
+    }
+
+    private void addIntoItemsLastAndNextBookings(Collection<Item> items, Set<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = groupByItemId(bookingRepository.findLastBookingsByItemIds(itemIds, now));
+        Map<Long, Booking> nextBookings = groupByItemId(bookingRepository.findNextBookingsByItemIds(itemIds, now));
+        for (Item item : items) {
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+        }
+    }
+
+    private Map<Long, Booking> groupByItemId(Collection<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
     @Override
     public Collection<Item> searchAvailableItems(String text, int from, int size) {
         Pageable page = PageRequest.of(from, size);
         log.info("Поиск вещей по запросу - {}.", text);
+        if (searchIndex.canSearch(text)) {
+            return searchInIndex(text, page);
+        }
         return itemRepository.searchAvailableItems(text, page);
     }
 
     @Override
+    public Collection<Item> searchAvailableItems(String text, ItemCursor cursor, int size) {
+        log.info("Поиск вещей по запросу - {} после вещи id{}.", text, cursor.getId());
+        if (searchIndex.canSearch(text)) {
+            List<Long> foundIds = searchIndex.search(text, cursor);
+            return findAllByIdInOrder(foundIds.subList(0, Math.min(size, foundIds.size())));
+        }
+        List<Item> items = new ArrayList<>();
+        if (cursor.getRank() == ItemCursor.NAME_RANK) {
+            items.addAll(itemRepository.searchAvailableItemsByNameAfter(text, cursor.getId(), PageRequest.of(0, size)));
+        }
+        if (items.size() < size) {
+            long afterId = cursor.getRank() == ItemCursor.DESCRIPTION_RANK ? cursor.getId() : 0;
+            items.addAll(itemRepository.searchAvailableItemsByDescriptionAfter(text, afterId,
+                    PageRequest.of(0, size - items.size())));
+        }
+        return items;
+    }
+
+    private List<Item> searchInIndex(String text, Pageable page) {
+        List<Long> foundIds = searchIndex.search(text);
+        if (page.getOffset() >= foundIds.size()) {
+            return Collections.emptyList();
+        }
+        return findAllByIdInOrder(foundIds.subList((int) page.getOffset(),
+                (int) Math.min(page.getOffset() + page.getPageSize(), foundIds.size())));
+    }
+
+    private List<Item> findAllByIdInOrder(List<Long> pageIds) {
+        Map<Long, Item> items = itemRepository.findAllById(pageIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
     public Comment addCommentByItemId(long bookerId, Comment comment, long itemId) {
         User booker = userRepository.findById(bookerId).orElseThrow(() -> new ElementNotFoundException(
                 String.format("пользователь с id%d не найден.", bookerId)));
@@ -156,9 +273,28 @@ public class ItemServiceImpl implements ItemService {
         return commentRepository.save(comment);
     }
 
+    @Override
+    public ItemAvailability getItemAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        checkUserById(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new ElementNotFoundException(String.format("вещь с id%d.", itemId));
+        }
+        if (!from.isBefore(to)) {
+            log.error("Начало периода {} не раньше его окончания {}.", from, to);
+            throw new ValidationException(String.format("начало периода %s не раньше его окончания %s.", from, to));
+        }
+        log.info("Запрошена занятость вещи id{} с {} по {}.", itemId, from, to);
+        return ItemAvailability.of(itemId, from, to, bookingRepository.findPeriodsByItemId(itemId,
+                Booking.ACTIVE_STATUSES, from, to));
+    }
 
     @Override
     public List<Item> searchAvailableItemsByRequestId(long requestId) {
         return itemRepository.searchAvailableItemsByRequest_Id(requestId);
     }
+
+    @Override
+    public List<Item> searchAvailableItemsByRequestIds(Collection<Long> requestIds) {
+        return itemRepository.searchAvailableItemsByRequest_IdIn(requestIds);
+    }
 }
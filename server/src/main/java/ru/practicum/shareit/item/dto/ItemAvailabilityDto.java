@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+    private long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<List<LocalDateTime>> busy;
+    private List<List<LocalDateTime>> free;
+
+    public ItemAvailabilityDto(long itemId, LocalDateTime from, LocalDateTime to, List<List<LocalDateTime>> busy,
+                               List<List<LocalDateTime>> free) {
+        this.itemId = itemId;
+        this.from = from;
+        this.to = to;
+        this.busy = busy;
+        this.free = free;
+    }
+}
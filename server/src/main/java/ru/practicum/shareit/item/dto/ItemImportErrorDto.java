@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class ItemImportErrorDto {
+    private int row;
+    private String name;
+    private String error;
+
+    public ItemImportErrorDto(int row, String name, String error) {
+        this.row = row;
+        this.name = name;
+        this.error = error;
+    }
+}
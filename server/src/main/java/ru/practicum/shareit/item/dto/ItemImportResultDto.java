@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class ItemImportResultDto {
+    private int received;
+    private int imported;
+    private List<ItemImportErrorDto> errors;
+
+    public ItemImportResultDto(int received, int imported, List<ItemImportErrorDto> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.errors = errors;
+    }
+}
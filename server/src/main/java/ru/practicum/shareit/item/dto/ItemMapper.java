@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.dto;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemAvailability;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
@@ -75,4 +79,19 @@ public class ItemMapper {
         return new Comment(
                 dto.getText());
     }
+
+    public static ItemAvailabilityDto toItemAvailabilityDto(ItemAvailability availability) {
+        return new ItemAvailabilityDto(
+                availability.getItemId(),
+                availability.getFrom(),
+                availability.getTo(),
+                toIntervals(availability.getBusy()),
+                toIntervals(availability.getFree()));
+    }
+
+    private static List<List<LocalDateTime>> toIntervals(List<BookingPeriod> periods) {
+        return periods.stream()
+                .map(period -> List.of(period.getStart(), period.getEnd()))
+                .collect(Collectors.toList());
+    }
 }
@@ -17,12 +17,13 @@ import java.util.List;
 @NoArgsConstructor
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
     private long id;
     @Column(name = "description", nullable = false, length = 1000)
     private String description;
     @JoinColumn(name = "requester_id", nullable = false)
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private User requester;
     private LocalDateTime created;
     @Transient
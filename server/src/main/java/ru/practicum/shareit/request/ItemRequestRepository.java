@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Collection;
@@ -8,9 +9,12 @@ import java.util.List;
 import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requester")
     Collection<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(long requesterId);
 
+    @EntityGraph(attributePaths = "requester")
     Optional<ItemRequest> findById(long requestId);
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterIdIsNotOrderByCreatedDesc(long requesterId, Pageable pageable);
 }
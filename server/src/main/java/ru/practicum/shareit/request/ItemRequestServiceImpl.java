@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.ItemMapper;
@@ -12,11 +13,11 @@ import ru.practicum.shareit.item.dto.ItemOwnerDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @Slf4j
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
@@ -26,6 +27,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemService itemService;
 
     @Override
+    @Transactional
     public ItemRequest addRequest(long userId, ItemRequest request) {
         User requester = userRepository.findById(userId).orElseThrow(() -> new IllegalAccessError(
                 String.format("пользователь с id%d.", userId)));
@@ -38,10 +40,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public Collection<ItemRequest> getAllItemRequestsByOwner(long userId) {
         itemService.checkUserById(userId);
         log.info("Запрошен список запросов пользователя id{}.", userId);
-        return requestRepository.findAllByRequesterIdOrderByCreatedDesc(userId)
-                .stream()
-                .map(this::searchItemsByRequest)
-                .collect(Collectors.toList());
+        return searchItemsByRequests(requestRepository.findAllByRequesterIdOrderByCreatedDesc(userId));
     }
 
     @Override
@@ -49,10 +48,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         itemService.checkUserById(requesterId);
         Pageable page = PageRequest.of(from, size);
         log.info("Пользователь id{} запросил список запросов других пользователей.", requesterId);
-        return requestRepository.findAllByRequesterIdIsNotOrderByCreatedDesc(requesterId, page)
-                .stream()
-                .map(this::searchItemsByRequest)
-                .collect(Collectors.toList());
+        return searchItemsByRequests(requestRepository.findAllByRequesterIdIsNotOrderByCreatedDesc(requesterId,
+                page));
     }
 
     @Override
@@ -72,4 +69,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         request.setItems(items);
         return request;
     }
+
+    private List<ItemRequest> searchItemsByRequests(Collection<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ItemOwnerDto>> items = itemService.searchAvailableItemsByRequestIds(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemMapper::toItemOwnerDto, Collectors.toList())));
+        requests.forEach(request -> request.setItems(items.getOrDefault(request.getId(), new ArrayList<>())));
+        return new ArrayList<>(requests);
+    }
 }
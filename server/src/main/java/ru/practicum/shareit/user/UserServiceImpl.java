@@ -5,12 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.EmailAlreadyExistsException;
 
 import java.util.Collection;
 
 @Service
+@Transactional(readOnly = true)
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
@@ -27,10 +29,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User addUser(User user) {
         try {
             log.info("Добавлен пользователь {}.", user);
-            return userRepository.save(user);
+            return userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             log.error("Пользователь с таким email {} уже существует.", user.getEmail());
             throw new EmailAlreadyExistsException(String.format("Пользователь с таким email %s уже существует.",
@@ -46,6 +49,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User updateUser(long userId, User updatedUser) {
         User user = getUserById(userId);
         if (updatedUser.getName() != null) {
@@ -56,7 +60,7 @@ public class UserServiceImpl implements UserService {
         }
         try {
             log.info(String.format("Обновлён пользователь с id%d.", userId));
-            return userRepository.save(user);
+            return userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             log.error("Пользователь с таким email {} уже существует.", user.getEmail());
             throw new EmailAlreadyExistsException(String.format("Пользователь с таким email %s уже существует.",
@@ -65,9 +69,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public HttpStatus removeUserById(long id) {
         try {
             userRepository.deleteById(id);
+            userRepository.flush();
             log.info(String.format("Удалён пользователь с id%d.", id));
             return HttpStatus.OK;
         } catch (Exception e) {
@@ -25,6 +25,7 @@ CREATE TABLE IF NOT EXISTS items
     is_available BOOLEAN,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY(id),
     CONSTRAINT FK_ITEM_ON_OWNER FOREIGN KEY(owner_id) REFERENCES users(id),
     CONSTRAINT FK_ITEM_ON_REQUEST FOREIGN KEY(request_id) REFERENCES item_requests(id),
@@ -38,7 +39,9 @@ CREATE TABLE IF NOT EXISTS bookings
     end_date_time TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT,
     booker_id BIGINT,
+    owner_id BIGINT,
     status varchar(50),
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY(id),
     CONSTRAINT FK_BOOKING_ON_BOOKER FOREIGN KEY(booker_id) REFERENCES users(id),
     CONSTRAINT FK_BOOKING_ON_ITEM FOREIGN KEY(item_id) REFERENCES items(id)
@@ -55,3 +58,34 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT FK_COMMENT_ON_AUTHOR FOREIGN KEY(author_id) REFERENCES users(id),
     CONSTRAINT FK_COMMENT_ON_ITEM FOREIGN KEY(item_id) REFERENCES items(id)
 );
+
+-- Entity ids come from pooled sequences so that Hibernate can batch inserts; one call reserves 50 ids.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+-- Optimistic locking columns for databases created before they were added to the tables above.
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+-- Owner of the booked item, copied onto the booking so that owner listings seek one index instead of joining items.
+-- Item owners never change, so the copy is written once on insert; the update backfills rows inserted before.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id)
+WHERE owner_id IS NULL AND item_id IS NOT NULL;
+
+-- Secondary indexes, v1. One per repository access path; bump the suffix when an index definition changes.
+-- items(owner_id) is already led by UQ_OWNER_ITEM_NAME, idx_items_owner adds the id order used by paging.
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start_v1 ON bookings (booker_id, start_date_time, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start_v1 ON bookings (booker_id, status, start_date_time, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start_v1 ON bookings (owner_id, start_date_time, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start_v1 ON bookings (owner_id, status, start_date_time, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start_v1 ON bookings (item_id, start_date_time);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_end_v1 ON bookings (item_id, end_date_time, start_date_time, status);
+CREATE INDEX IF NOT EXISTS idx_comments_item_v1 ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_items_owner_v1 ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request_v1 ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_item_requests_requester_created_v1 ON item_requests (requester_id, created);
+CREATE INDEX IF NOT EXISTS idx_item_requests_created_v1 ON item_requests (created);
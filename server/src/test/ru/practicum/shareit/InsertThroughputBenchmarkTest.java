@@ -0,0 +1,107 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.Status;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class InsertThroughputBenchmarkTest {
+    private static final int ROWS = 20_000;
+    private static final int ROWS_PER_TRANSACTION = 1_000;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private int nextRow;
+
+    @Test
+    void measureInsertsFlushedPerRowAgainstBatchedInserts() {
+        User owner = userRepository.save(new User("Owner", "insert.owner@mail.ru"));
+        User author = userRepository.save(new User("Author", "insert.author@mail.ru"));
+        Item item = new Item("Insert drill", "Drill for insert benchmark", true, 0);
+        item.setOwner(owner);
+        Item savedItem = itemRepository.save(item);
+        LocalDateTime base = LocalDateTime.now().plusYears(3).truncatedTo(ChronoUnit.HOURS);
+
+        IntFunction<Comment> comments = row -> {
+            Comment comment = new Comment("Отзыв " + row);
+            comment.setItem(savedItem);
+            comment.setAuthor(author);
+            comment.setCreated(base);
+            return comment;
+        };
+        IntFunction<Booking> bookings = row -> {
+            Booking booking = new Booking(base.plusHours(row), base.plusHours(row + 1), savedItem.getId());
+            booking.setItem(savedItem);
+            booking.setBooker(author);
+            booking.setStatus(Status.APPROVED);
+            return booking;
+        };
+        report("comments", commentRepository, comments);
+        report("bookings", bookingRepository, bookings);
+        assertThat(commentRepository.findAllByItem_Id(savedItem.getId()),
+                hasSize(2 * (ROWS + ROWS_PER_TRANSACTION)));
+    }
+
+    private <T> void report(String table, JpaRepository<T, Long> repository, IntFunction<T> rows) {
+        insert(repository, rows, ROWS_PER_TRANSACTION, true);
+        insert(repository, rows, ROWS_PER_TRANSACTION, false);
+        long flushedPerRow = insert(repository, rows, ROWS, true);
+        long batched = insert(repository, rows, ROWS, false);
+        log.info("Вставка {} строк в {}: по одной {} строк/с, пакетами {} строк/с.", ROWS, table,
+                rowsPerSecond(flushedPerRow), rowsPerSecond(batched));
+    }
+
+    // flushEachRow makes one round trip per insert, the way identity ids did before the id sequences.
+    private <T> long insert(JpaRepository<T, Long> repository, IntFunction<T> rows, int count, boolean flushEachRow) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long started = System.nanoTime();
+        for (int inserted = 0; inserted < count; inserted += ROWS_PER_TRANSACTION) {
+            transaction.executeWithoutResult(status -> {
+                for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                    T row = rows.apply(nextRow++);
+                    if (flushEachRow) {
+                        repository.saveAndFlush(row);
+                    } else {
+                        repository.save(row);
+                    }
+                }
+            });
+        }
+        return System.nanoTime() - started;
+    }
+
+    private long rowsPerSecond(long nanos) {
+        return ROWS * 1_000_000_000L / nanos;
+    }
+}
@@ -6,10 +6,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingBatchDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
@@ -21,13 +27,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
 @ContextConfiguration(classes = ShareItServer.class)
@@ -174,6 +181,49 @@ class BookingControllerTest {
                 .andExpect(status().is(404));
     }
 
+    @Test
+    void setApprovedByOwnerWhen409IsReturned() throws Exception {
+        when(service.setApprovedByOwner(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new ConflictException("бронирование id1 уже рассмотрено, текущий статус APPROVED."));
+        mvc.perform(patch("/bookings/1")
+                        .param("approved", "false")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", containsString("уже рассмотрено")));
+    }
+
+    @Test
+    void setApprovedByOwnerForBatchWhen200IsReturned() throws Exception {
+        when(service.setApprovedByOwner(1L, List.of(1L, 2L), true))
+                .thenReturn(List.of(
+                        new BookingBatchResultDto(1L, BookingBatchResultDto.Result.UPDATED, Status.APPROVED),
+                        new BookingBatchResultDto(2L, BookingBatchResultDto.Result.FORBIDDEN, null)));
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(new BookingBatchDto(List.of(1L, 2L), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1)))
+                .andExpect(jsonPath("$[0].result", is("UPDATED")))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].result", is("FORBIDDEN")));
+    }
+
+    @Test
+    void setApprovedByOwnerForBatchWhen400IsReturnedWithoutDecision() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                        .content(mapper.writeValueAsString(new BookingBatchDto(List.of(1L, 2L), null)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+        verifyNoInteractions(service);
+    }
+
     @Test
     void getBookingByIdWhen200IsReturned() throws Exception {
         when(service.getBookingById(anyLong(), anyLong()))
@@ -197,6 +247,34 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.name", is(item1.getName())));
     }
 
+    @Test
+    void getBookingByIdWhen304IsReturnedForUnchangedBooking() throws Exception {
+        when(service.getBookingById(anyLong(), anyLong()))
+                .thenReturn(booking1);
+        String etag = mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        booking1.setStatus(Status.APPROVED);
+        mvc.perform(get("/bookings/1")
+                        .header("X-Sharer-User-Id", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(Status.APPROVED.toString())));
+    }
+
     @Test
     void getBookingByIdWhen404IsReturned() throws Exception {
         when(service.getBookingById(anyLong(), anyLong()))
@@ -212,8 +290,8 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsByUserIdWhen200IsReturned() throws Exception {
-        List<Booking> bookings = new ArrayList<>();
-        bookings.add(booking1);
+        List<BookingDto> bookings = new ArrayList<>();
+        bookings.add(BookingMapper.toBookingDto(booking1));
         when(service.getAllBookingsByUserId(anyLong(), anyString(), anyInt(), anyInt()))
                 .thenReturn(bookings);
         mvc.perform(get("/bookings")
@@ -273,8 +351,8 @@ class BookingControllerTest {
 
     @Test
     void getAllBookingsByOwnerIdWhen200IsReturned() throws Exception {
-        List<Booking> bookings = new ArrayList<>();
-        bookings.add(booking1);
+        List<BookingDto> bookings = new ArrayList<>();
+        bookings.add(BookingMapper.toBookingDto(booking1));
         when(service.getAllBookingsByOwnerId(anyLong(), anyString(), anyInt(), anyInt()))
                 .thenReturn(bookings);
         mvc.perform(get("/bookings/owner")
@@ -347,4 +425,17 @@ class BookingControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(500));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllBookingsByOwnerIdWhen400IsReturnedForHalfCursor() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("cursorId", "7")
+                        .header("X-Sharer-User-Id", 2)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+        verifyNoInteractions(service);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.Status;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+class BookingOverlapBenchmarkTest {
+    private static final int EXISTING_BOOKINGS = 10_000;
+    private static final int WARMUP = 200;
+    private static final int MEASURED = 1_000;
+
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void measureAddBookingWithTenThousandExistingBookingsPerItem() {
+        User owner = userRepository.save(new User("Owner", "overlap.owner@mail.ru"));
+        User booker = userRepository.save(new User("Booker", "overlap.booker@mail.ru"));
+        Item item = new Item("Overlap drill", "Drill for overlap benchmark", true, 0);
+        item.setOwner(owner);
+        long itemId = itemRepository.save(item).getId();
+
+        LocalDateTime base = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.HOURS);
+        List<Object[]> rows = new ArrayList<>(EXISTING_BOOKINGS);
+        for (int i = 0; i < EXISTING_BOOKINGS; i++) {
+            rows.add(new Object[]{Timestamp.valueOf(base.plusHours(i)), Timestamp.valueOf(base.plusHours(i + 1)),
+                    itemId, booker.getId(), Status.APPROVED.name()});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date_time, end_date_time, item_id, booker_id, " +
+                "status) values (next value for bookings_seq, ?, ?, ?, ?, ?)", rows);
+
+        LocalDateTime free = base.plusHours(EXISTING_BOOKINGS);
+        for (int i = 0; i < WARMUP; i++) {
+            bookingService.addBooking(booker.getId(), new Booking(free.plusHours(i), free.plusHours(i + 1), itemId));
+        }
+        free = free.plusHours(WARMUP);
+        long[] nanos = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            Booking booking = new Booking(free.plusHours(i), free.plusHours(i + 1), itemId);
+            long started = System.nanoTime();
+            bookingService.addBooking(booker.getId(), booking);
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        log.info("addBooking при {} бронированиях вещи: p50 {} мкс, p95 {} мкс, p99 {} мкс.", EXISTING_BOOKINGS,
+                percentile(nanos, 50), percentile(nanos, 95), percentile(nanos, 99));
+
+        LocalDateTime middle = base.plusHours(EXISTING_BOOKINGS / 2);
+        assertThrows(ConflictException.class, () -> bookingService.addBooking(booker.getId(),
+                new Booking(middle.plusMinutes(30), middle.plusMinutes(90), itemId)));
+    }
+
+    private long percentile(long[] sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000;
+    }
+}
@@ -1,19 +1,26 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.Status;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -24,6 +31,8 @@ import static org.hamcrest.Matchers.*;
 class BookingRepositoryTest {
     @Autowired
     private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
     private User user1;
     private User user2;
     private Item item1;
@@ -34,38 +43,31 @@ class BookingRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        user1 = new User("John1", "item1@mail.ru");
-        user1.setId(1L);
-        em.merge(user1);
-        user2 = new User("John2", "item2@mail.ru");
-        user2.setId(2L);
-        em.merge(user2);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        user1 = em.persist(new User("John1", "item1@mail.ru"));
+        user2 = em.persist(new User("John2", "item2@mail.ru"));
         item1 = new Item("Thing1", "Best thing1", true, 0);
-        item1.setId(1L);
         item1.setOwner(user1);
-        em.merge(item1);
+        item1 = em.persist(item1);
         item2 = new Item("Thing2", "Cool thing2", true, 0);
-        item2.setId(2L);
         item2.setOwner(user2);
-        em.merge(item2);
-        booking1 = new Booking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusMinutes(2), 1L);
-        booking1.setId(1L);
+        item2 = em.persist(item2);
+        booking1 = new Booking(now.plusMinutes(1), now.plusMinutes(2), item1.getId());
         booking1.setItem(item1);
         booking1.setBooker(user2);
         booking1.setStatus(Status.WAITING);
-        em.merge(booking1);
-        booking2 = new Booking(LocalDateTime.now().plusMinutes(3), LocalDateTime.now().plusMinutes(4), 2L);
-        booking2.setId(2L);
+        booking1 = em.persist(booking1);
+        booking2 = new Booking(now.plusMinutes(3), now.plusMinutes(4), item2.getId());
         booking2.setItem(item2);
         booking2.setBooker(user1);
         booking2.setStatus(Status.APPROVED);
-        em.merge(booking2);
-        booking3 = new Booking(LocalDateTime.now().plusMinutes(5), LocalDateTime.now().plusMinutes(6), 2L);
-        booking3.setId(3L);
+        booking2 = em.persist(booking2);
+        booking3 = new Booking(now.plusMinutes(5), now.plusMinutes(6), item2.getId());
         booking3.setItem(item2);
         booking3.setBooker(user1);
         booking3.setStatus(Status.REJECTED);
-        em.merge(booking3);
+        booking3 = em.persist(booking3);
+        em.flush();
     }
 
     @Test
@@ -171,4 +173,168 @@ class BookingRepositoryTest {
             assertThat(ownerBooking.getStatus(), equalTo(booking2.getStatus()));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void findLastAndNextBookingsByItemIds() {
+        Booking olderPast = new Booking(LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                item2.getId());
+        olderPast.setItem(item2);
+        olderPast.setBooker(user1);
+        olderPast.setStatus(Status.APPROVED);
+        Booking latestPast = new Booking(LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item2.getId());
+        latestPast.setItem(item2);
+        latestPast.setBooker(user1);
+        latestPast.setStatus(Status.APPROVED);
+        olderPast = em.persist(olderPast);
+        latestPast = em.persist(latestPast);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(Set.of(item1.getId(),
+                item2.getId()), now);
+        assertThat(lastBookings, hasSize(1));
+        assertThat(lastBookings.get(0).getId(), equalTo(latestPast.getId()));
+        assertThat(lastBookings.get(0).getId(), not(equalTo(olderPast.getId())));
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(Set.of(item1.getId(),
+                item2.getId()), now);
+        assertThat(nextBookings, hasSize(2));
+        assertThat(bookingRepository.findFirstByItem_IdAndEndBeforeOrderByEndDesc(item2.getId(), now)
+                .orElseThrow().getId(), equalTo(latestPast.getId()));
+        assertThat(bookingRepository.findFirstByItem_IdAndStartAfterOrderByStartAsc(item2.getId(), now)
+                .orElseThrow().getStart(), equalTo(booking2.getStart()));
+    }
+
+    @Test
+    void shouldProjectBookingListingsIntoDtos() {
+        List<BookingDto> bookings = bookingRepository.findBookingsByBooker_Id(user1.getId(),
+                PageRequest.of(0, 10, Sort.by("start").descending()));
+        assertThat(bookings, hasSize(2));
+        BookingDto booking = bookings.get(0);
+        assertThat(booking.getId(), equalTo(booking3.getId()));
+        assertThat(booking.getStatus(), equalTo(Status.REJECTED));
+        assertThat(booking.getBooker().getName(), equalTo(user1.getName()));
+        assertThat(booking.getBooker().getEmail(), equalTo(user1.getEmail()));
+        assertThat(booking.getItem().getId(), equalTo(item2.getId()));
+        assertThat(booking.getItem().getName(), equalTo(item2.getName()));
+        assertThat(booking.getItem().getAvailable(), is(true));
+        assertThat(booking.getItem().getComments(), empty());
+    }
+
+    @Test
+    void shouldFetchItemAndBookerWithBookingById() {
+        em.flush();
+        em.clear();
+        Booking booking = bookingRepository.findById(booking1.getId()).orElseThrow();
+        assertThat(Hibernate.isInitialized(booking.getItem()), is(true));
+        assertThat(Hibernate.isInitialized(booking.getBooker()), is(true));
+        assertThat(Hibernate.isInitialized(booking.getItem().getOwner()), is(false));
+    }
+
+    @Test
+    void findBookingsBeforeCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        booking2.setStart(start);
+        booking2.setEnd(start.plusHours(1));
+        booking2 = em.merge(booking2);
+        booking3.setStart(start.plusHours(2));
+        booking3.setEnd(start.plusHours(3));
+        booking3 = em.merge(booking3);
+        Booking booking4 = new Booking(start.plusHours(2), start.plusHours(4), item2.getId());
+        booking4.setItem(item2);
+        booking4.setBooker(user1);
+        booking4.setStatus(Status.WAITING);
+        booking4 = em.persist(booking4);
+        em.flush();
+        List<BookingDto> firstPage = bookingRepository.findByBooker_IdBeforeCursor(user1.getId(),
+                start.plusYears(1), Long.MAX_VALUE, PageRequest.of(0, 2));
+        assertThat(ids(firstPage), contains(booking4.getId(), booking3.getId()));
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingRepository.findByBooker_IdBeforeCursor(user1.getId(), last.getStart(),
+                last.getId(), PageRequest.of(0, 2));
+        assertThat(ids(secondPage), contains(booking2.getId()));
+        assertThat(ids(bookingRepository.findByOwner_IdBeforeCursor(user2.getId(), booking4.getStart(),
+                booking4.getId(), PageRequest.of(0, 10))), contains(booking3.getId(), booking2.getId()));
+        assertThat(ids(bookingRepository.findFutureByOwner_IdBeforeCursor(user2.getId(), start.plusMinutes(30),
+                booking4.getStart(), booking4.getId(), PageRequest.of(0, 10))), contains(booking3.getId()));
+        assertThat(ids(bookingRepository.findByBooker_IdAndStatusBeforeCursor(user1.getId(), Status.APPROVED,
+                booking4.getStart(), booking4.getId(), PageRequest.of(0, 10))), contains(booking2.getId()));
+    }
+
+    private List<Long> ids(List<BookingDto> bookings) {
+        return bookings.stream()
+                .map(BookingDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void shouldUpdateStatusOnlyForWaitingBookingOfOwner() {
+        assertThat(bookingRepository.updateStatusByOwner(booking1.getId(), user2.getId(), Status.WAITING,
+                Status.APPROVED), equalTo(0));
+        assertThat(bookingRepository.updateStatusByOwner(booking1.getId(), user1.getId(), Status.WAITING,
+                Status.APPROVED), equalTo(1));
+        assertThat(bookingRepository.updateStatusByOwner(booking1.getId(), user1.getId(), Status.WAITING,
+                Status.REJECTED), equalTo(0));
+
+        Booking booking = bookingRepository.findById(booking1.getId()).orElseThrow();
+        assertThat(booking.getStatus(), equalTo(Status.APPROVED));
+        assertThat(booking.getVersion(), equalTo(1L));
+    }
+
+    @Test
+    void shouldFindOnlyActiveBookingsOverlappingPeriod() {
+        LocalDateTime start = booking2.getStart();
+        LocalDateTime end = booking2.getEnd();
+        assertThat(bookingRepository.existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(item2.getId(),
+                Set.of(Status.WAITING, Status.APPROVED), end, start.minusSeconds(30)), is(true));
+        assertThat(bookingRepository.existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(item2.getId(),
+                Set.of(Status.WAITING, Status.APPROVED), start, start.minusMinutes(1)), is(false));
+        assertThat(bookingRepository.existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(item2.getId(),
+                Set.of(Status.WAITING, Status.APPROVED), booking3.getEnd(), booking3.getStart()), is(false));
+    }
+
+    @Test
+    void shouldFindActiveBookingPeriodsInsidePeriodOrderedByEnd() {
+        LocalDateTime from = booking2.getStart().plusSeconds(30);
+        List<BookingPeriod> periods = bookingRepository.findPeriodsByItemId(item2.getId(),
+                Booking.ACTIVE_STATUSES, from, booking3.getEnd().plusMinutes(1));
+        assertThat(periods, hasSize(1));
+        assertThat(periods.get(0).getStart().truncatedTo(ChronoUnit.SECONDS),
+                equalTo(booking2.getStart().truncatedTo(ChronoUnit.SECONDS)));
+        assertThat(bookingRepository.findPeriodsByItemId(item2.getId(), Booking.ACTIVE_STATUSES,
+                booking2.getEnd(), booking3.getStart()), empty());
+    }
+
+    @Test
+    void shouldPlanIndexScansForBookingAccessPaths() {
+        assertIndexScan("select * from bookings where booker_id = 1 order by start_date_time desc");
+        assertIndexScan("select * from bookings where booker_id = 1 and (start_date_time < now() " +
+                "or (start_date_time = now() and id < 10)) order by start_date_time desc, id desc");
+        assertIndexScan("select * from bookings where booker_id = 1 and status = 'WAITING' " +
+                "order by start_date_time desc");
+        assertIndexScan("select * from bookings where owner_id = 1 and (start_date_time < now() " +
+                "or (start_date_time = now() and id < 10)) order by start_date_time desc, id desc");
+        assertIndexScan("select * from bookings where owner_id = 1 and status = 'WAITING' " +
+                "order by start_date_time desc, id desc");
+        assertIndexScan("select * from bookings where item_id = 1 and end_date_time < now() " +
+                "order by end_date_time desc");
+        assertIndexScan("select * from bookings where item_id = 1 and start_date_time > now() " +
+                "order by start_date_time");
+        assertIndexScan("select * from bookings where item_id = 1 and status in ('WAITING', 'APPROVED') " +
+                "and start_date_time < now() and end_date_time > now() limit 1");
+    }
+
+    @Test
+    void shouldSeekAvailabilityPeriodsByEndOfBooking() {
+        String plan = explain("select start_date_time, end_date_time from bookings where item_id = 1 " +
+                "and status in ('WAITING', 'APPROVED') and start_date_time < now() + 1 " +
+                "and end_date_time > now() order by end_date_time");
+        assertThat(plan, containsStringIgnoringCase("idx_bookings_item_end_v1"));
+    }
+
+    private void assertIndexScan(String sql) {
+        assertThat(explain(sql), not(containsString("tableScan")));
+    }
+
+    private String explain(String sql) {
+        return em.getEntityManager().createNativeQuery("explain " + sql).getSingleResult().toString();
+    }
+}
@@ -6,19 +6,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.Status;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 @SpringBootTest
+@Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @TestPropertySource(locations = "classpath:application-test.properties")
 class BookingServiceImplIntegrationTest {
@@ -27,35 +38,26 @@ class BookingServiceImplIntegrationTest {
     private final UserRepository userRepository;
 
     private Item item1;
-    private Item item2;
     private User user1;
     private User user2;
     private Booking booking1;
 
     @BeforeEach
     void setUp() {
-        user1 = new User(1L, "John1", "doe1@mail.ru");
-        user2 = new User(2L, "John2", "john.doe2@mail.com");
+        user1 = userRepository.save(new User("John1", "booking.owner@mail.ru"));
+        user2 = userRepository.save(new User("John2", "booking.booker@mail.com"));
 
-        item1 = new Item("Thing", "Cool thing", true, 1);
-        item1.setId(1L);
+        item1 = new Item("Thing", "Cool thing", true, 0);
         item1.setOwner(user1);
+        item1 = itemRepository.save(item1);
 
-        item2 = new Item("Paper2", "Newspaper2", true, 0);
-        item2.setId(2L);
-        item2.setOwner(user2);
-
-        booking1 = new Booking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusMinutes(2), 1L);
-
-        userRepository.save(user1);
-        userRepository.save(user2);
-        itemRepository.save(item1);
-        itemRepository.save(item2);
+        booking1 = new Booking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(1),
+                item1.getId());
     }
 
     @Test
     void shouldAddBooking() {
-        Booking savedBooking = bookingService.addBooking(2L, booking1);
+        Booking savedBooking = bookingService.addBooking(user2.getId(), booking1);
         assertThat(savedBooking.getId(), notNullValue());
         assertThat(savedBooking.getItem().getId(), equalTo(item1.getId()));
         assertThat(savedBooking.getItem().getName(), equalTo(item1.getName()));
@@ -67,4 +69,39 @@ class BookingServiceImplIntegrationTest {
         assertThat(savedBooking.getStart(), notNullValue());
         assertThat(savedBooking.getEnd(), notNullValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRejectOverlappingBookingAndAllowAdjacentOne() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS);
+        bookingService.addBooking(user2.getId(), new Booking(start, start.plusHours(2), item1.getId()));
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.addBooking(user2.getId(), new Booking(start.plusHours(1), start.plusHours(3), item1.getId())));
+        assertTrue(exception.getMessage().contains("уже забронирована"));
+
+        Booking adjacent = bookingService.addBooking(user2.getId(), new Booking(start.plusHours(2), start.plusHours(3), item1.getId()));
+        assertThat(adjacent.getId(), notNullValue());
+    }
+
+    @Test
+    void shouldApplyOwnerDecisionToBatchAndReportResultPerBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(60).truncatedTo(ChronoUnit.HOURS);
+        long first = bookingService.addBooking(user2.getId(), new Booking(start, start.plusHours(1), item1.getId())).getId();
+        long second = bookingService.addBooking(user2.getId(), new Booking(start.plusHours(1), start.plusHours(2), item1.getId())).getId();
+
+        List<BookingBatchResultDto> approved = bookingService.setApprovedByOwner(user1.getId(), List.of(first, second,
+                first, Long.MAX_VALUE), true);
+        assertThat(approved.stream().map(BookingBatchResultDto::getResult).collect(Collectors.toList()),
+                contains(BookingBatchResultDto.Result.UPDATED, BookingBatchResultDto.Result.UPDATED,
+                        BookingBatchResultDto.Result.NOT_FOUND));
+        assertThat(bookingService.getBookingById(user1.getId(), first).getStatus(), equalTo(Status.APPROVED));
+        assertThat(bookingService.getBookingById(user1.getId(), second).getStatus(), equalTo(Status.APPROVED));
+
+        assertThat(bookingService.setApprovedByOwner(user1.getId(), List.of(first), true).get(0).getResult(),
+                equalTo(BookingBatchResultDto.Result.UNCHANGED));
+        assertThat(bookingService.setApprovedByOwner(user1.getId(), List.of(first), false).get(0).getResult(),
+                equalTo(BookingBatchResultDto.Result.CONFLICT));
+        assertThat(bookingService.setApprovedByOwner(user2.getId(), List.of(first), false).get(0).getResult(),
+                equalTo(BookingBatchResultDto.Result.FORBIDDEN));
+    }
+}
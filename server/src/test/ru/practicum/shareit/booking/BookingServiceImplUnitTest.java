@@ -1,12 +1,18 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Comment;
@@ -17,6 +23,7 @@ import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -24,12 +31,12 @@ import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -130,17 +137,62 @@ class BookingServiceImplUnitTest {
         assertTrue(exception.getMessage().contains("бронирование вещи id1 недоступно."));
     }
 
+    @Test
+    void shouldThrowConflictExceptionWhenAddBookingWhenPeriodOverlaps() {
+        item1.setOwner(user1);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item1));
+        when(bookingRepository.existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(anyLong(), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.addBooking(2L, booking1));
+        assertTrue(exception.getMessage().contains("вещь id1 уже забронирована"));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+    }
+
+    @Test
+    void shouldThrowConflictExceptionWhenAddBookingViolatesPeriodConstraint() {
+        item1.setOwner(user1);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item1));
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("ex", new ConstraintViolationException("ex",
+                        new SQLException(), "ex_bookings_item_period_v1")));
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.addBooking(2L, booking1));
+        assertTrue(exception.getMessage().contains("вещь id1 уже забронирована"));
+    }
+
+    @Test
+    void shouldRethrowOtherConstraintViolationsWhenAddBooking() {
+        item1.setOwner(user1);
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(user2));
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item1));
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("fk", new ConstraintViolationException("fk",
+                        new SQLException(), "fk_bookings_item")));
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.addBooking(2L, booking1));
+    }
+
     @Test
     void shouldSetApprovedByOwner() {
-        booking1.setStatus(Status.WAITING);
+        booking1.setStatus(Status.APPROVED);
         item1.setOwner(user1);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
+        when(bookingRepository.updateStatusByOwner(1L, 1L, Status.WAITING, Status.APPROVED))
+                .thenReturn(1);
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking1));
-        when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(booking1);
         Booking returnedBooking = bookingService.setApprovedByOwner(1L, 1L, true);
+        verify(bookingRepository, never()).save(any(Booking.class));
         assertThat(returnedBooking.getId(), equalTo(booking1.getId()));
         assertThat(returnedBooking.getStart(), notNullValue());
         assertThat(returnedBooking.getEnd(), notNullValue());
@@ -151,15 +203,16 @@ class BookingServiceImplUnitTest {
 
     @Test
     void shouldSetRejectedByOwner() {
-        booking1.setStatus(Status.WAITING);
+        booking1.setStatus(Status.REJECTED);
         item1.setOwner(user1);
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
+        when(bookingRepository.updateStatusByOwner(1L, 1L, Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
         when(bookingRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(booking1));
-        when(bookingRepository.save(any(Booking.class)))
-                .thenReturn(booking1);
         Booking returnedBooking = bookingService.setApprovedByOwner(1L, 1L, false);
+        verify(bookingRepository, never()).save(any(Booking.class));
         assertThat(returnedBooking.getId(), equalTo(booking1.getId()));
         assertThat(returnedBooking.getStart(), notNullValue());
         assertThat(returnedBooking.getEnd(), notNullValue());
@@ -238,6 +291,20 @@ class BookingServiceImplUnitTest {
         assertTrue(exception.getMessage().contains("Повторное изменение статуса на идентичный не допускается."));
     }
 
+    @Test
+    void shouldThrowConflictExceptionWhenSetRejectedByOwnerWhenStatusIsAlreadyApproved() {
+        item1.setOwner(user1);
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        when(bookingRepository.updateStatusByOwner(anyLong(), anyLong(), any(Status.class), any(Status.class)))
+                .thenReturn(0);
+        when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(booking1));
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.setApprovedByOwner(1L, 1L, false));
+        assertTrue(exception.getMessage().contains("уже рассмотрено"));
+    }
+
     @Test
     void shouldGetBookingByIdWhenUserIsBooker() {
         when(userRepository.existsById(anyLong()))
@@ -308,11 +375,27 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByBooker_Id(anyLong(), any(Pageable.class)))
-                .thenReturn(List.of(booking1, booking2));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "all", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1), BookingMapper.toBookingDto(booking2)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "all", 0, 2);
         assertThat(bookings.size(), equalTo(2));
-        assertTrue(bookings.contains(booking1));
-        assertTrue(bookings.contains(booking2));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking2)));
+    }
+
+    @Test
+    void shouldGetAllBookingsByUserIdBeforeCursor() {
+        LocalDateTime cursorStart = LocalDateTime.now().plusDays(1);
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        when(bookingRepository.findFutureByBooker_IdBeforeCursor(anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "future", cursorStart, 7L, 2);
+        assertThat(bookings, hasSize(1));
+        verify(bookingRepository, times(1)).findFutureByBooker_IdBeforeCursor(eq(2L), any(LocalDateTime.class),
+                eq(cursorStart), eq(7L), eq(PageRequest.of(0, 2)));
+        verify(bookingRepository, never()).findByBooker_IdAndStartAfter(anyLong(), any(LocalDateTime.class),
+                any(Pageable.class));
     }
 
     @Test
@@ -331,10 +414,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByBooker_IdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "approved", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "approved", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -344,10 +427,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByBooker_IdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking2));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "waiting", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking2)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "waiting", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking2));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking2)));
     }
 
     @Test
@@ -357,10 +440,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByBooker_IdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "rejected", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "rejected", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -372,10 +455,10 @@ class BookingServiceImplUnitTest {
                 .thenReturn(true);
         when(bookingRepository.findByBooker_IdAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
                 any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "current", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "current", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -387,10 +470,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findByBooker_IdAndEndBefore(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "past", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "past", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -399,10 +482,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findByBooker_IdAndStartAfter(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByUserId(2L, "future", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByUserId(2L, "future", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -412,11 +495,11 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByOwnerId(anyLong(), any(Pageable.class)))
-                .thenReturn(List.of(booking1, booking2));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(1L, "all", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1), BookingMapper.toBookingDto(booking2)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(1L, "all", 0, 2);
         assertThat(bookings.size(), equalTo(2));
-        assertTrue(bookings.contains(booking1));
-        assertTrue(bookings.contains(booking2));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking2)));
     }
 
     @Test
@@ -435,10 +518,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByOwnerIdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(1L, "approved", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(1L, "approved", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -448,10 +531,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByOwnerIdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking2));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(1L, "waiting", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking2)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(1L, "waiting", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking2));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking2)));
     }
 
     @Test
@@ -461,10 +544,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findBookingsByOwnerIdAndStatus(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(1L, "rejected", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(1L, "rejected", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -476,10 +559,10 @@ class BookingServiceImplUnitTest {
                 .thenReturn(true);
         when(bookingRepository.findByOwner_IdAndStartBeforeAndEndAfter(anyLong(), any(LocalDateTime.class),
                 any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(2L, "current", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(2L, "current", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -491,10 +574,10 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findByOwner_IdAndEndBefore(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(2L, "past", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(2L, "past", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 
     @Test
@@ -503,9 +586,9 @@ class BookingServiceImplUnitTest {
         when(userRepository.existsById(anyLong()))
                 .thenReturn(true);
         when(bookingRepository.findByOwner_IdAndStartAfter(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking1));
-        Collection<Booking> bookings = bookingService.getAllBookingsByOwnerId(2L, "future", 0, 2);
+                .thenReturn(List.of(BookingMapper.toBookingDto(booking1)));
+        Collection<BookingDto> bookings = bookingService.getAllBookingsByOwnerId(2L, "future", 0, 2);
         assertThat(bookings.size(), equalTo(1));
-        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(BookingMapper.toBookingDto(booking1)));
     }
 }
\ No newline at end of file
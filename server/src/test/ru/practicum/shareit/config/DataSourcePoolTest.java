@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application-test.properties")
+class DataSourcePoolTest {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void shouldConfigurePoolFromApplicationProperties() throws SQLException {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        assertThat(pool.getPoolName(), equalTo("shareit"));
+        assertThat(pool.getMaximumPoolSize(), equalTo(20));
+        assertThat(pool.getConnectionTimeout(), equalTo(3000L));
+        assertThat(pool.getLeakDetectionThreshold(), equalTo(10000L));
+        assertThat(pool.getDataSourceProperties().getProperty("reWriteBatchedInserts"), equalTo("true"));
+        assertThat(pool.getDataSourceProperties().getProperty("prepareThreshold"), equalTo("3"));
+    }
+
+    @Test
+    void shouldPublishPoolMetrics() {
+        new JdbcTemplate(dataSource).queryForObject("select 1", Integer.class);
+        assertThat(meterRegistry.find("hikaricp.connections.active").tag("pool", "shareit").gauge(),
+                notNullValue());
+        assertThat(meterRegistry.find("hikaricp.connections.idle").tag("pool", "shareit").gauge(), notNullValue());
+        assertThat(meterRegistry.find("hikaricp.connections.pending").tag("pool", "shareit").gauge(),
+                notNullValue());
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "shareit").timer(),
+                notNullValue());
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit_primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.enabled=true",
+        "shareit.datasource.replica.urls=jdbc:h2:mem:shareit_replica;DB_CLOSE_DELAY=-1;"
+                + "INIT=RUNSCRIPT FROM 'classpath:schema.sql'"
+})
+class ReplicaDataSourceConfigTest {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final MeterRegistry meterRegistry;
+    private final UserService userService;
+    private final MockMvc mvc;
+
+    @Test
+    void shouldStartWithReplicasAndPublishMetricsOfEveryPool() {
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getAvailableReplicas(), contains("replica-1"));
+        assertThat(meterRegistry.find("hikaricp.connections.active").tag("pool", ReplicaRoutingDataSource.PRIMARY)
+                .gauge(), notNullValue());
+        assertThat(meterRegistry.find("hikaricp.connections.active").tag("pool", "replica-1").gauge(),
+                notNullValue());
+    }
+
+    @Test
+    void shouldWriteToPrimaryAfterReadOnlyTransactionInTheSameRequest() throws Exception {
+        User owner = userService.addUser(new User("Owner", "replica.owner@mail.ru"));
+        JdbcTemplate primary = new JdbcTemplate(routingDataSource.getResolvedDataSources()
+                .get(ReplicaRoutingDataSource.PRIMARY));
+        JdbcTemplate replica = new JdbcTemplate(routingDataSource.getResolvedDataSources().get("replica-1"));
+        replica.update("insert into users (id, name, email) values (?, ?, ?)", owner.getId(), owner.getName(),
+                owner.getEmail());
+        routingDataSource.checkReplicas();
+
+        mvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .contentType(ItemImporter.NDJSON_VALUE)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+
+        assertThat(primary.queryForObject("select count(*) from items where owner_id = ?", Integer.class,
+                owner.getId()), equalTo(1));
+        assertThat(replica.queryForObject("select count(*) from items where owner_id = ?", Integer.class,
+                owner.getId()), equalTo(0));
+    }
+}
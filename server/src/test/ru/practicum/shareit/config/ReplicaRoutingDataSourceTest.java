@@ -0,0 +1,97 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ReplicaRoutingDataSourceTest {
+    private static final String LAG_QUERY = "select seconds from replica_lag";
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        replica = h2("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        createNode(primary, "primary");
+        createNode(replica, "replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("drop all objects");
+        new JdbcTemplate(replica).execute("drop all objects");
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplicaAndWritesToPrimary() {
+        ReplicaRoutingDataSource routingDataSource = routing(Map.of("replica-1", replica), null);
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getAvailableReplicas(), equalTo(List.of("replica-1")));
+        assertThat(nodeName(routingDataSource, true), equalTo("replica"));
+        assertThat(nodeName(routingDataSource, false), equalTo("primary"));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsDown() {
+        DataSource missingReplica = h2("jdbc:h2:tcp://localhost:1/routing_missing");
+        ReplicaRoutingDataSource routingDataSource = routing(Map.of("replica-1", missingReplica), null);
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getAvailableReplicas(), empty());
+        assertThat(nodeName(routingDataSource, true), equalTo("primary"));
+    }
+
+    @Test
+    void shouldSkipReplicaWhileItLagsBehindPrimary() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("create table replica_lag (seconds double)");
+        replicaJdbc.update("insert into replica_lag values (10)");
+        ReplicaRoutingDataSource routingDataSource = routing(Map.of("replica-1", replica), LAG_QUERY);
+        routingDataSource.checkReplicas();
+
+        assertThat(nodeName(routingDataSource, true), equalTo("primary"));
+
+        replicaJdbc.update("update replica_lag set seconds = 1");
+        routingDataSource.checkReplicas();
+
+        assertThat(nodeName(routingDataSource, true), equalTo("replica"));
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas, String lagQuery) {
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, Duration.ofSeconds(5));
+    }
+
+    private String nodeName(ReplicaRoutingDataSource routingDataSource, boolean readOnly) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("select name from node", String.class));
+    }
+
+    private DriverManagerDataSource h2(String url) {
+        return new DriverManagerDataSource(url, "test", "test");
+    }
+
+    private void createNode(DataSource dataSource, String name) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(16))");
+        jdbcTemplate.update("insert into node values (?)", name);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigTest {
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    @Test
+    void shouldRunTasksOnVirtualThreadsWhenJavaSupportsThem() throws Exception {
+        assumeTrue(Runtime.version().feature() >= VIRTUAL_THREADS_JAVA_VERSION);
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        try {
+            Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                    .get();
+            assertThat(virtual, is(true));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFailWithClearMessageOnOlderJava() {
+        assumeTrue(Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION);
+        assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+    }
+}
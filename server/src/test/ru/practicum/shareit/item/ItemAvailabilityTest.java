@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingPeriod;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemAvailabilityTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Test
+    void shouldReturnWholePeriodAsFreeWithoutBookings() {
+        ItemAvailability availability = ItemAvailability.of(1L, FROM, TO, List.of());
+        assertThat(availability.getBusy(), empty());
+        assertThat(availability.getFree(), contains(new BookingPeriod(FROM, TO)));
+    }
+
+    @Test
+    void shouldMergeOverlappingAndAdjacentBookingsAndClipThemToPeriod() {
+        ItemAvailability availability = ItemAvailability.of(1L, FROM, TO, List.of(
+                period(-2, 1),
+                period(3, 5),
+                period(4, 6),
+                period(6, 7),
+                period(10, 11),
+                period(20, 30)));
+        assertThat(availability.getBusy(), contains(
+                period(0, 1),
+                period(3, 7),
+                period(10, 11),
+                period(20, 24)));
+        assertThat(availability.getFree(), contains(
+                period(1, 3),
+                period(7, 10),
+                period(11, 20)));
+    }
+
+    @Test
+    void shouldMergeBookingsReadInOrderOfTheirEnd() {
+        ItemAvailability availability = ItemAvailability.of(1L, FROM, TO, List.of(
+                period(3, 4),
+                period(5, 6),
+                period(2, 10)));
+        assertThat(availability.getBusy(), contains(period(2, 10)));
+        assertThat(availability.getFree(), contains(period(0, 2), period(10, 24)));
+    }
+
+    @Test
+    void shouldKeepLongBookingThatCoversFollowingOnes() {
+        ItemAvailability availability = ItemAvailability.of(1L, FROM, TO, List.of(
+                period(2, 10),
+                period(3, 4),
+                period(5, 6)));
+        assertThat(availability.getBusy(), contains(period(2, 10)));
+        assertThat(availability.getFree(), contains(period(0, 2), period(10, 24)));
+    }
+
+    private BookingPeriod period(int startHour, int endHour) {
+        return new BookingPeriod(FROM.plusHours(startHour), FROM.plusHours(endHour));
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +10,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingPeriod;
 import ru.practicum.shareit.exception.ElementNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,8 +28,10 @@ import java.util.List;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -33,6 +40,9 @@ class ItemControllerTest {
     @MockBean
     private ItemService service;
 
+    @MockBean
+    private ItemImporter importer;
+
     @Autowired
     private MockMvc mvc;
 
@@ -363,6 +373,51 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].requestId", is((int) item1.getRequestId())));
     }
 
+    @Test
+    void searchAvailableItemsWithTokenWhen200IsReturned() throws Exception {
+        ItemCursor cursor = new ItemCursor(ItemCursor.NAME_RANK, 1L);
+        when(service.searchAvailableItems(anyString(), any(ItemCursor.class), anyInt()))
+                .thenReturn(List.of(item2));
+        mvc.perform(get("/items/search")
+                        .param("text", "paper")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("token", cursor.encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(item2.getId()), Long.class))
+                .andExpect(header().string(ItemController.CONTINUATION_TOKEN_HEADER,
+                        new ItemCursor(ItemCursor.NAME_RANK, item2.getId()).encode()));
+        verify(service).searchAvailableItems("paper", cursor, 1);
+    }
+
+    @Test
+    void searchAvailableItemsWhenTokenIsInvalidAnd400IsReturned() throws Exception {
+        mvc.perform(get("/items/search")
+                        .param("text", "paper")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .param("token", "bm90LWEtY3Vyc29y")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(400));
+    }
+
+    @Test
+    void getOwnerItemsWhenLastPageHasNoToken() throws Exception {
+        when(service.getOwnerItems(anyLong(), any(ItemCursor.class), anyInt()))
+                .thenReturn(List.of(item3));
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 2)
+                        .param("from", "0")
+                        .param("size", "2")
+                        .param("token", new ItemCursor(ItemCursor.NAME_RANK, 2L).encode())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(header().doesNotExist(ItemController.CONTINUATION_TOKEN_HEADER));
+        verify(service).getOwnerItems(2L, new ItemCursor(ItemCursor.NAME_RANK, 2L), 2);
+    }
+
     @Test
     void addCommentByItemIdWhen200IsReturned() throws Exception {
         when(service.addCommentByItemId(anyLong(), any(Comment.class), anyLong()))
@@ -405,4 +460,66 @@ class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is(404));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getItemAvailabilityWhen200IsReturned() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(service.getItemAvailability(1L, 1L, from, to))
+                .thenReturn(ItemAvailability.of(1L, from, to, List.of(new BookingPeriod(from.plusHours(2),
+                        from.plusHours(4)))));
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0][0]", Matchers.startsWith("2030-01-01T02:00")))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1][1]", Matchers.startsWith("2030-01-02T00:00")));
+    }
+
+    @Test
+    void getItemAvailabilityWhen404IsReturned() throws Exception {
+        when(service.getItemAvailability(anyLong(), anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenThrow(ElementNotFoundException.class);
+        mvc.perform(get("/items/99/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(404));
+    }
+
+    @Test
+    void importItemsWhen200IsReturned() throws Exception {
+        when(importer.importItems(eq(1L), any(InputStream.class)))
+                .thenReturn(new ItemImportResultDto(2, 1, List.of(new ItemImportErrorDto(2, "Paper1",
+                        "UQ_OWNER_ITEM_NAME: у пользователя уже есть вещь с таким названием."))));
+        mvc.perform(post("/items/bulk")
+                        .content("{\"name\":\"Paper2\"}\n{\"name\":\"Paper1\"}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(ItemImporter.NDJSON_VALUE)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)))
+                .andExpect(jsonPath("$.errors[0].error", Matchers.startsWith("UQ_OWNER_ITEM_NAME")));
+    }
+
+    @Test
+    void importItemsWhen404IsReturned() throws Exception {
+        when(importer.importItems(anyLong(), any(InputStream.class)))
+                .thenThrow(ElementNotFoundException.class);
+        mvc.perform(post("/items/bulk")
+                        .content("[]")
+                        .header("X-Sharer-User-Id", 99)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is(404));
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ItemImporterTest {
+    private ItemService itemService;
+    private ItemImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        itemService = mock(ItemService.class);
+        importer = new ItemImporter(itemService, new ObjectMapper(), 2);
+        when(itemService.findOwnerItemNames(anyLong(), anyCollection())).thenReturn(Set.of());
+        when(itemService.addItems(anyLong(), anyList())).thenAnswer(invocation -> invocation.getArgument(1));
+    }
+
+    @Test
+    void shouldImportJsonArrayInChunks() throws IOException {
+        ItemImportResultDto result = importer.importItems(1L, body("[" +
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}," +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}," +
+                "{\"name\":\"Клей\",\"description\":\"Момент\",\"available\":false}]"));
+
+        assertThat(result.getReceived(), equalTo(3));
+        assertThat(result.getImported(), equalTo(3));
+        assertThat(result.getErrors(), empty());
+        verify(itemService, times(2)).addItems(eq(1L), anyList());
+    }
+
+    @Test
+    void shouldReportDuplicateAndExistingNamesPerRow() throws IOException {
+        when(itemService.findOwnerItemNames(eq(1L), anyCollection())).thenReturn(Set.of("Дрель"));
+
+        ItemImportResultDto result = importer.importItems(1L, body(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\",\"description\":\"Ещё одна\",\"available\":true}\n"));
+
+        assertThat(result.getReceived(), equalTo(3));
+        assertThat(result.getImported(), equalTo(1));
+        assertThat(result.getErrors().stream().map(ItemImportErrorDto::getRow).toArray(), equalTo(new Object[]{1, 3}));
+        assertThat(result.getErrors().get(0).getError(), Matchers.startsWith(ItemImporter.UNIQUE_NAME_CONSTRAINT));
+        assertThat(result.getErrors().get(1).getError(), containsString("строке 2"));
+    }
+
+    @Test
+    void shouldFallBackToSingleRowsWhenChunkIsRejected() throws IOException {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("uq",
+                new ConstraintViolationException("uq", new SQLException(), "uq_owner_item_name"));
+        when(itemService.addItems(eq(1L), argThat(items -> items != null && items.size() == 2))).thenThrow(violation);
+        when(itemService.addItems(eq(1L), argThat(items -> items != null && items.size() == 1
+                && items.get(0).getName().equals("Пила")))).thenThrow(violation);
+
+        ItemImportResultDto result = importer.importItems(1L, body(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}\n"));
+
+        assertThat(result.getImported(), equalTo(1));
+        assertThat(result.getErrors(), hasSize(1));
+        assertThat(result.getErrors().get(0).getRow(), equalTo(2));
+        assertThat(result.getErrors().get(0).getError(), Matchers.startsWith(ItemImporter.UNIQUE_NAME_CONSTRAINT));
+    }
+
+    @Test
+    void shouldReportInvalidRowsWithoutImportingThem() throws IOException {
+        ItemImportResultDto result = importer.importItems(1L, body("[" +
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}," +
+                "{\"name\":\"Пила\",\"available\":true}," +
+                "{\"name\":\"Клей\",\"description\":\"Момент\"}]"));
+
+        assertThat(result.getReceived(), equalTo(3));
+        assertThat(result.getImported(), equalTo(1));
+        assertThat(result.getErrors().stream().map(ItemImportErrorDto::getRow).toArray(), equalTo(new Object[]{2, 3}));
+        verify(itemService).addItems(1L, List.of(new Item("Дрель", "Ударная", true, 0)));
+    }
+
+    @Test
+    void shouldThrowValidationExceptionWhenUploadIsEmpty() {
+        assertThrows(ValidationException.class, () -> importer.importItems(1L, body("[]")));
+        verify(itemService, never()).addItems(anyLong(), anyList());
+    }
+
+    @Test
+    void shouldKeepRowsBeforeMalformedJson() throws IOException {
+        ItemImportResultDto result = importer.importItems(1L, body(
+                "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\",\"description\":"));
+
+        assertThat(result.getReceived(), equalTo(1));
+        assertThat(result.getImported(), equalTo(1));
+        assertThat(result.getErrors(), hasSize(1));
+        assertThat(result.getErrors().get(0).getRow(), equalTo(2));
+        verify(itemService).addItems(1L, List.of(new Item("Дрель", "Ударная", true, 0)));
+    }
+
+    private ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.TestPropertySource;
 import ru.practicum.shareit.user.User;
 
@@ -12,25 +14,26 @@ import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
 @TestPropertySource(locations = "classpath:application-test.properties")
 class ItemRepositoryTest {
     @Autowired
     private TestEntityManager em;
+    @Autowired
+    private ItemRepository itemRepository;
 
     @Test
     void verifyRepositoryBySearchAvailableItems() {
+        User user = em.persist(new User("John", "item@mail.ru"));
         Item item1 = new Item("ThingNeeded", "Cool thing1", true, 0);
-        item1.setId(1L);
-        Item item2 = new Item("Thing2", "Cool thing2", true, 0);
-        item2.setId(2L);
-        User user = new User(1L, "John", "item@mail.ru");
         item1.setOwner(user);
+        item1 = em.persist(item1);
+        Item item2 = new Item("Thing2", "Cool thing2", true, 0);
         item2.setOwner(user);
-        em.merge(user);
-        em.merge(item1);
-        em.merge(item2);
+        em.persist(item2);
+        em.flush();
         TypedQuery<Item> query = em.getEntityManager().createQuery("select i from Item as i " +
                 "where (upper(i.name) like upper(concat('%', :text, '%')) " +
                 "or upper(i.description) like upper(concat('%', :text, '%'))) " +
@@ -48,4 +51,75 @@ class ItemRepositoryTest {
             assertThat(item3.getComments(), hasSize(0));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldRejectUpdateOfStaleItem() {
+        User user = em.persist(new User("John", "version@mail.ru"));
+        Item stale = new Item("Drill", "Old drill", true, 0);
+        stale.setOwner(user);
+        stale = em.persistFlushFind(stale);
+        em.detach(stale);
+        Item current = em.find(Item.class, stale.getId());
+        current.setDescription("New drill");
+        em.flush();
+        assertThat(current.getVersion(), equalTo(1L));
+
+        stale.setName("Hammer");
+        Item staleItem = stale;
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemRepository.saveAndFlush(staleItem));
+    }
+
+    @Test
+    void shouldRankNameMatchesBeforeDescriptionMatchesWhenSearchAvailableItems() {
+        User user = em.persist(new User("John", "search@mail.ru"));
+        Item byDescription = new Item("Drill", "Needed for walls", true, 0);
+        byDescription.setOwner(user);
+        byDescription = em.persist(byDescription);
+        Item byName = new Item("Needed saw", "Sharp", true, 0);
+        byName.setOwner(user);
+        byName = em.persist(byName);
+        Item unavailable = new Item("Needed hammer", "Heavy", false, 0);
+        unavailable.setOwner(user);
+        em.persist(unavailable);
+        List<Item> items = itemRepository.searchAvailableItems("needed", PageRequest.of(0, 10));
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getId(), equalTo(byName.getId()));
+        assertThat(items.get(1).getId(), equalTo(byDescription.getId()));
+    }
+
+    @Test
+    void shouldSearchAvailableItemsAfterCursor() {
+        User user = em.persist(new User("John", "cursor@mail.ru"));
+        Item byName1 = persistItem(user, "Needed saw", "Sharp");
+        Item byDescription1 = persistItem(user, "Drill", "Needed for walls");
+        Item byName2 = persistItem(user, "Needed glue", "Strong");
+        Item byDescription2 = persistItem(user, "Brush", "Needed for paint");
+        assertThat(itemRepository.searchAvailableItemsByNameAfter("needed", byName1.getId(),
+                PageRequest.of(0, 10)), contains(byName2));
+        assertThat(itemRepository.searchAvailableItemsByDescriptionAfter("needed", 0,
+                PageRequest.of(0, 10)), contains(byDescription1, byDescription2));
+        assertThat(itemRepository.searchAvailableItemsByDescriptionAfter("needed", byDescription1.getId(),
+                PageRequest.of(0, 10)), contains(byDescription2));
+        assertThat(itemRepository.findItemsByOwnerIdAndIdGreaterThanOrderByIdAsc(user.getId(), byName1.getId(),
+                PageRequest.of(0, 2)), contains(byDescription1, byName2));
+    }
+
+    @Test
+    void shouldPlanIndexScansForItemAndCommentAccessPaths() {
+        assertIndexScan("select * from items where owner_id = 1 order by id");
+        assertIndexScan("select * from items where request_id = 1");
+        assertIndexScan("select * from comments where item_id = 1");
+        assertIndexScan("select * from item_requests where requester_id = 1 order by created desc");
+    }
+
+    private void assertIndexScan(String sql) {
+        String plan = em.getEntityManager().createNativeQuery("explain " + sql).getSingleResult().toString();
+        assertThat(plan, not(containsString("tableScan")));
+    }
+
+    private Item persistItem(User owner, String name, String description) {
+        Item item = new Item(name, description, true, 0);
+        item.setOwner(owner);
+        return em.persist(item);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private ItemSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(mock(ItemRepository.class), true);
+        searchIndex.put(item(1L, "Дрель", "Дрель ударная", true));
+        searchIndex.put(item(2L, "Отвертка", "Аккумуляторная отвертка", true));
+        searchIndex.put(item(3L, "Клей", "Тюбик суперклея марки Момент", true));
+        searchIndex.put(item(4L, "Дрель", "Простая дрель", false));
+    }
+
+    @Test
+    void shouldFindAvailableItemsBySubstringIgnoringCase() {
+        assertThat(searchIndex.search("дРеЛь"), equalTo(List.of(1L)));
+        assertThat(searchIndex.search("аккУМУляторная"), equalTo(List.of(2L)));
+        assertThat(searchIndex.search("пила"), empty());
+    }
+
+    @Test
+    void shouldRankNameMatchesBeforeDescriptionMatches() {
+        searchIndex.put(item(5L, "Набор", "Клей и кисть", true));
+        searchIndex.put(item(6L, "Клеевой пистолет", "Горячий клей", true));
+        assertThat(searchIndex.search("кле"), equalTo(List.of(3L, 6L, 5L)));
+    }
+
+    @Test
+    void shouldContinueSearchAfterCursor() {
+        searchIndex.put(item(5L, "Набор", "Клей и кисть", true));
+        searchIndex.put(item(6L, "Клеевой пистолет", "Горячий клей", true));
+        assertThat(searchIndex.search("кле", new ItemCursor(ItemCursor.NAME_RANK, 3L)), equalTo(List.of(6L, 5L)));
+        assertThat(searchIndex.search("кле", new ItemCursor(ItemCursor.NAME_RANK, 6L)), equalTo(List.of(5L)));
+        assertThat(searchIndex.search("кле", new ItemCursor(ItemCursor.DESCRIPTION_RANK, 5L)), empty());
+    }
+
+    @Test
+    void shouldLeaveQueriesShorterThanGramToDatabase() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, true);
+        index.rebuild();
+        assertThat(index.canSearch("т"), is(false));
+        assertThat(index.canSearch("кле"), is(true));
+        assertThat(searchIndex.search("т"), empty());
+    }
+
+    @Test
+    void shouldOrderMatchesByIdWhenItemsAreIndexedOutOfOrder() {
+        searchIndex.put(item(9L, "Клей столярный", "Клей для дерева", true));
+        searchIndex.put(item(8L, "Клей обойный", "Клей для обоев", true));
+        assertThat(searchIndex.search("клей"), equalTo(List.of(3L, 8L, 9L)));
+    }
+
+    @Test
+    void shouldReindexItemWhenItemIsUpdated() {
+        searchIndex.put(item(4L, "Перфоратор", "Простой перфоратор", true));
+        searchIndex.put(item(1L, "Дрель", "Дрель ударная", false));
+        assertThat(searchIndex.search("дрель"), empty());
+        assertThat(searchIndex.search("перфоратор"), equalTo(List.of(4L)));
+    }
+
+    @Test
+    void shouldIndexIdsBeyondIntRange() {
+        long id = Integer.MAX_VALUE + 10L;
+        searchIndex.put(item(id, "Молоток", "Слесарный молоток", true));
+        assertThat(searchIndex.search("молоток"), equalTo(List.of(id)));
+        assertThat(searchIndex.search("молоток", new ItemCursor(ItemCursor.NAME_RANK, id)), empty());
+    }
+
+    @Test
+    void shouldBeReadyOnlyAfterRebuild() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item(7L, "Лестница", "Стремянка", true))));
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, true);
+        assertThat(index.isReady(), is(false));
+        index.rebuild();
+        assertThat(index.isReady(), is(true));
+        assertThat(index.search("лестница"), equalTo(List.of(7L)));
+    }
+
+    private Item item(long id, String name, String description, boolean available) {
+        Item item = new Item(name, description, available, 0);
+        item.setId(id);
+        return item;
+    }
+}
@@ -1,28 +1,39 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
+@Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @TestPropertySource(locations = "classpath:application-test.properties")
 class ItemServiceImplIntegrationTest {
@@ -32,8 +43,8 @@ class ItemServiceImplIntegrationTest {
     private final CommentRepository commentRepository;
 
     private final ItemRequestRepository requestRepository;
+    private final ObjectMapper objectMapper;
     private Item item1;
-    private Item item2;
     private User user1;
     private User user2;
     private Comment comment;
@@ -43,51 +54,40 @@ class ItemServiceImplIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        user1 = new User(1L, "John1", "doe1@mail.ru");
-        user2 = new User(2L, "John2", "john.doe2@mail.com");
+        user1 = userRepository.save(new User("John1", "item.owner@mail.ru"));
+        user2 = userRepository.save(new User("John2", "item.booker@mail.com"));
 
-        item1 = new Item("Thing", "Cool thing", true, 1);
-        item1.setId(1L);
-        item1.setOwner(user1);
+        request = new ItemRequest("I want something.");
+        request.setRequester(user2);
+        request.setCreated(LocalDateTime.now());
+        request = requestRepository.save(request);
 
-        item2 = new Item("Paper2", "Newspaper2", true, 0);
-        item2.setId(2L);
-        item2.setOwner(user2);
+        item1 = itemService.addItem(user1.getId(), new Item("Thing", "Cool thing", true, request.getId()));
 
-        comment = new Comment("Great paper!");
-        comment.setId(1L);
-        comment.setItem(item1);
-        comment.setAuthor(user2);
-        comment.setCreated(LocalDateTime.now());
-
-        lastBooking = new Booking(LocalDateTime.now().minusMinutes(2), LocalDateTime.now().minusMinutes(1), 1L);
-        lastBooking.setId(1L);
+        lastBooking = new Booking(LocalDateTime.now().minusMinutes(2), LocalDateTime.now().minusMinutes(1),
+                item1.getId());
         lastBooking.setBooker(user2);
         lastBooking.setItem(item1);
         lastBooking.setStatus(Status.APPROVED);
+        lastBooking = bookingRepository.save(lastBooking);
 
-        nextBooking = new Booking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusMinutes(2), 1L);
-        nextBooking.setId(2L);
+        nextBooking = new Booking(LocalDateTime.now().plusMinutes(1), LocalDateTime.now().plusMinutes(2),
+                item1.getId());
         nextBooking.setBooker(user2);
         nextBooking.setItem(item1);
         nextBooking.setStatus(Status.APPROVED);
+        nextBooking = bookingRepository.save(nextBooking);
 
-        request = new ItemRequest("I want something.");
-        request.setRequester(user2);
-        request.setCreated(LocalDateTime.now());
-
-        userRepository.save(user1);
-        userRepository.save(user2);
-        requestRepository.save(request);
-        itemService.addItem(1L, item1);
-        bookingRepository.save(lastBooking);
-        bookingRepository.save(nextBooking);
-        commentRepository.save(comment);
+        comment = new Comment("Great paper!");
+        comment.setItem(item1);
+        comment.setAuthor(user2);
+        comment.setCreated(LocalDateTime.now());
+        comment = commentRepository.save(comment);
     }
 
     @Test
     void shouldGetOwnerItems() {
-        Collection<Item> items = itemService.getOwnerItems(1L, 0, 1);
+        Collection<Item> items = itemService.getOwnerItems(user1.getId(), 0, 1);
         assertThat(items, hasSize(1));
         for (Item returnedItem : items) {
             assertThat(returnedItem.getId(), equalTo(item1.getId()));
@@ -115,4 +115,30 @@ class ItemServiceImplIntegrationTest {
             assertThat(returnedItem.getComments().get(0).getText(), equalTo(comment.getText()));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldImportItemsInBatchesAndReportNameConflicts() throws IOException {
+        itemService.addItem(user2.getId(), new Item("Bulk drill", "Already listed", true, 0));
+        ItemImporter importer = new ItemImporter(itemService, objectMapper, 2);
+        String rows = "{\"name\":\"Bulk drill\",\"description\":\"Drill\",\"available\":true}\n" +
+                "{\"name\":\"Bulk saw\",\"description\":\"Saw\",\"available\":true}\n" +
+                "{\"name\":\"Bulk saw\",\"description\":\"Another saw\",\"available\":true}\n" +
+                "{\"name\":\"Bulk hammer\",\"description\":\"Hammer\",\"available\":true," +
+                "\"requestId\":" + request.getId() + "}\n" +
+                "{\"name\":\"Bulk ladder\",\"description\":\"Ladder\",\"available\":false}\n";
+
+        ItemImportResultDto result = importer.importItems(user2.getId(),
+                new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getReceived(), equalTo(5));
+        assertThat(result.getImported(), equalTo(3));
+        assertThat(result.getErrors(), hasSize(2));
+        assertThat(result.getErrors().get(0).getRow(), equalTo(1));
+        assertThat(result.getErrors().get(1).getRow(), equalTo(3));
+        assertThat(itemService.findOwnerItemNames(user2.getId(), List.of("Bulk saw", "Bulk hammer", "Bulk ladder")),
+                equalTo(Set.of("Bulk saw", "Bulk hammer", "Bulk ladder")));
+        assertThat(itemService.searchAvailableItemsByRequestId(request.getId()).stream()
+                .map(Item::getName)
+                .collect(Collectors.toList()), hasItem("Bulk hammer"));
+    }
+}
@@ -27,6 +27,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -164,8 +165,10 @@ class ItemServiceImplUnitTest {
                 .thenReturn(Optional.ofNullable(item1));
         when(commentRepository.findAllByItem_Id(anyLong()))
                 .thenReturn(List.of(comment));
-        when(bookingRepository.findBookingsByItem_Id(anyLong()))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        when(bookingRepository.findFirstByItem_IdAndEndBeforeOrderByEndDesc(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(lastBooking));
+        when(bookingRepository.findFirstByItem_IdAndStartAfterOrderByStartAsc(anyLong(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(nextBooking));
         item1.setComments(List.of(comment));
         item1.setOwner(user1);
         Item returnedItem = itemService.getItemById(1L, 1L);
@@ -200,8 +203,6 @@ class ItemServiceImplUnitTest {
                 .thenReturn(Optional.ofNullable(item1));
         when(commentRepository.findAllByItem_Id(anyLong()))
                 .thenReturn(List.of(comment));
-        when(bookingRepository.findBookingsByItem_Id(anyLong()))
-                .thenReturn(List.of(lastBooking, nextBooking));
         item1.setComments(List.of(comment));
         item1.setOwner(user1);
         Item returnedItem = itemService.getItemById(3L, 1L);
@@ -271,6 +272,35 @@ class ItemServiceImplUnitTest {
         assertThat(ownerItems.size(), equalTo(2));
     }
 
+    @Test
+    void shouldLoadCommentsAndBookingsOnceForAllOwnerItems() {
+        item1.setOwner(user1);
+        item2.setId(2L);
+        item2.setOwner(user1);
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+        when(itemRepository.findItemsByOwnerId(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(item1, item2));
+        when(commentRepository.findAllByItem_IdIn(anyCollection()))
+                .thenReturn(List.of(comment));
+        when(bookingRepository.findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBooking));
+        List<Item> ownerItems = List.copyOf(itemService.getOwnerItems(1L, 0, 2));
+        assertThat(ownerItems.size(), equalTo(2));
+        assertThat(ownerItems.get(0).getComments().size(), equalTo(1));
+        assertThat(ownerItems.get(0).getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(ownerItems.get(0).getNextBooking().getId(), equalTo(nextBooking.getId()));
+        assertThat(ownerItems.get(1).getComments().size(), equalTo(0));
+        assertThat(ownerItems.get(1).getLastBooking(), nullValue());
+        assertThat(ownerItems.get(1).getNextBooking(), nullValue());
+        verify(commentRepository, times(1)).findAllByItem_IdIn(anyCollection());
+        verify(bookingRepository, times(1)).findLastBookingsByItemIds(anyCollection(), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findNextBookingsByItemIds(anyCollection(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findAllByItem_Id(anyLong());
+    }
+
     @Test
     void shouldThrowElementNotFoundExceptionWhenGetOwnerItemsWhenUserNotFound() {
         when(userRepository.existsById(anyLong()))
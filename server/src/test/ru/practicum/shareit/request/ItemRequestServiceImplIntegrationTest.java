@@ -25,34 +25,24 @@ class ItemRequestServiceImplIntegrationTest {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
-    private Item item1;
-    private Item item2;
     private User user1;
     private User user2;
-    private ItemRequest request1;
-    private ItemRequest request2;
 
     @BeforeEach
     void setUp() {
-        user1 = new User(1L, "John1", "doe1@mail.ru");
-        user2 = new User(2L, "John2", "john.doe2@mail.com");
-        userRepository.save(user1);
-        userRepository.save(user2);
+        user1 = userRepository.save(new User("John1", "request.owner@mail.ru"));
+        user2 = userRepository.save(new User("John2", "request.other@mail.com"));
 
-        item1 = new Item("Thing", "Cool thing", true, 1);
-        item1.setId(1L);
+        Item item1 = new Item("Thing", "Cool thing", true, 0);
         item1.setOwner(user1);
-        item2 = new Item("Paper2", "Newspaper2", true, 1);
-        item2.setId(2L);
+        Item item2 = new Item("Paper2", "Newspaper2", true, 0);
         item2.setOwner(user2);
         itemRepository.save(item1);
         itemRepository.save(item2);
 
-        request1 = new ItemRequest("I want something.");
-        request1.setId(1L);
+        ItemRequest request1 = new ItemRequest("I want something.");
         request1.setRequester(user1);
-        request2 = new ItemRequest("I want something else.");
-        request2.setId(2L);
+        ItemRequest request2 = new ItemRequest("I want something else.");
         request2.setRequester(user2);
         requestRepository.save(request1);
         requestRepository.save(request2);
@@ -60,7 +50,7 @@ class ItemRequestServiceImplIntegrationTest {
 
     @Test
     void getAllItemRequestsByOwner() {
-        Collection<ItemRequest> ownerRequests = requestService.getAllItemRequestsByOwner(1L);
+        Collection<ItemRequest> ownerRequests = requestService.getAllItemRequestsByOwner(user1.getId());
         assertThat(ownerRequests, hasSize(1));
         for (ItemRequest req : ownerRequests) {
             assertThat(ownerRequests, hasItem(allOf(
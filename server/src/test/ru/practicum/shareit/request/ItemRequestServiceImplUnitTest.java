@@ -17,12 +17,14 @@ import ru.practicum.shareit.user.UserRepository;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -100,6 +102,27 @@ class ItemRequestServiceImplUnitTest {
         verify(itemService, times(1)).checkUserById(1L);
     }
 
+    @Test
+    void shouldLoadItemsOnceForAllRequestsByOwner() {
+        request1.setRequester(user2);
+        request2.setRequester(user2);
+        item1.setRequest(request1);
+        item2.setId(2L);
+        item2.setRequest(request1);
+        when(requestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(request2, request1));
+        when(itemService.searchAvailableItemsByRequestIds(anyCollection()))
+                .thenReturn(List.of(item1, item2));
+        List<ItemRequest> requests = List.copyOf(requestService.getAllItemRequestsByOwner(2L));
+        assertThat(requests, hasSize(2));
+        assertThat(requests.get(0).getId(), equalTo(request2.getId()));
+        assertThat(requests.get(0).getItems(), empty());
+        assertThat(requests.get(1).getId(), equalTo(request1.getId()));
+        assertThat(requests.get(1).getItems(), hasSize(2));
+        verify(itemService, times(1)).searchAvailableItemsByRequestIds(Set.of(1L, 2L));
+        verify(itemService, never()).searchAvailableItemsByRequestId(anyLong());
+    }
+
     @Test
     void shouldGetItemRequestByIdWhenItemsNotFound() {
         request2.setRequester(user2);
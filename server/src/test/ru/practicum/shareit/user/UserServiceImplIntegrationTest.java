@@ -6,10 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.exception.ElementNotFoundException;
+import ru.practicum.shareit.exception.EmailAlreadyExistsException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -17,6 +22,7 @@ import static org.hamcrest.Matchers.notNullValue;
 class UserServiceImplIntegrationTest {
 
     private final UserService userService;
+    private final ItemRepository itemRepository;
     private User user1;
 
     @BeforeEach
@@ -31,4 +37,23 @@ class UserServiceImplIntegrationTest {
         assertThat(user2.getName(), equalTo(user1.getName()));
         assertThat(user2.getEmail(), equalTo(user1.getEmail()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldThrowEmailAlreadyExistsExceptionWhenUpdateUserWithTakenEmail() {
+        userService.addUser(new User("First", "first.update@mail.ru"));
+        User second = userService.addUser(new User("Second", "second.update@mail.ru"));
+        assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.updateUser(second.getId(), new User(null, "first.update@mail.ru")));
+        assertThat(userService.getUserById(second.getId()).getEmail(), equalTo("second.update@mail.ru"));
+    }
+
+    @Test
+    void shouldThrowElementNotFoundExceptionWhenRemoveUserWithItems() {
+        User owner = userService.addUser(new User("Owner", "owner.remove@mail.ru"));
+        Item item = new Item("Drill", "Drill of removed owner", true, 0);
+        item.setOwner(owner);
+        itemRepository.save(item);
+        assertThrows(ElementNotFoundException.class, () -> userService.removeUserById(owner.getId()));
+        assertThat(userService.getUserById(owner.getId()).getEmail(), equalTo("owner.remove@mail.ru"));
+    }
+}
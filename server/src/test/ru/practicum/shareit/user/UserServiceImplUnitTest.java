@@ -52,7 +52,7 @@ class UserServiceImplUnitTest {
 
     @Test
     void shouldThrowEmailAlreadyExistsExceptionWhenAddUserWhenUserIsExists() {
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenThrow(DataIntegrityViolationException.class);
         EmailAlreadyExistsException exception = assertThrows(EmailAlreadyExistsException.class,
                 () -> userService.addUser(user1));
@@ -83,7 +83,7 @@ class UserServiceImplUnitTest {
         user2 = new User(2L, "John2", "show@mail.ru");
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user1));
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenThrow(DataIntegrityViolationException.class);
         EmailAlreadyExistsException exception = assertThrows(EmailAlreadyExistsException.class,
                 () -> userService.updateUser(1L, user2));
@@ -95,7 +95,7 @@ class UserServiceImplUnitTest {
         user2 = new User(2L, "John2", "show@mail.ru");
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user1));
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenReturn(user2);
         user2.setId(1L);
         User updatedUser = userService.updateUser(1L, user2);
@@ -108,5 +108,6 @@ class UserServiceImplUnitTest {
     void shouldRemoveUserById() {
         userService.removeUserById(1L);
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userRepository, times(1)).flush();
     }
 }
\ No newline at end of file